@@ -4,8 +4,10 @@ import java.util.logging.Logger;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class NanoPulseAuthApplication {
 
 	private static final Logger logger = Logger.getLogger(NanoPulseAuthApplication.class.getName());
@@ -1,7 +1,10 @@
 package com.thutasann.nano_pulse_auth.config;
 
+import com.thutasann.nano_pulse_auth.libraries.TimedPasswordEncoder;
 import com.thutasann.nano_pulse_auth.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -18,9 +21,16 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 public class ApplicationConfig {
 
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
 
-    @Bean
-    public UserDetailsService userDetailsService() {
+    @Value("${auth.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    /**
+     * Loads the full user, password hash included, for login. Request
+     * authentication uses {@code CachedUserDetailsService} instead.
+     */
+    private UserDetailsService credentialsUserDetailsService() {
         return username -> userRepository.findByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
@@ -28,7 +38,7 @@ public class ApplicationConfig {
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
-        authProvider.setUserDetailsService(userDetailsService());
+        authProvider.setUserDetailsService(credentialsUserDetailsService());
         authProvider.setPasswordEncoder(passwordEncoder());
         return authProvider;
     }
@@ -40,6 +50,6 @@ public class ApplicationConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), meterRegistry);
     }
 }
\ No newline at end of file
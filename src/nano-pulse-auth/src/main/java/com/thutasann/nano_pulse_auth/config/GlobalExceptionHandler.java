@@ -3,6 +3,7 @@ package com.thutasann.nano_pulse_auth.config;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -11,10 +12,20 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import com.thutasann.nano_pulse_auth.exceptions.InvalidTokenException;
+import com.thutasann.nano_pulse_auth.exceptions.LoginThrottledException;
+import com.thutasann.nano_pulse_auth.exceptions.ServiceBusyException;
 import com.thutasann.nano_pulse_auth.exceptions.UserAlreadyExistsException;
 
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    // fixed bodies are shared; only per-request messages allocate
+    private static final Map<String, String> INVALID_CREDENTIALS = Map.of("message", "Invalid email or password");
+    private static final Map<String, String> EXPIRED_TOKEN = Map.of("message", "Token has expired");
+    private static final Map<String, String> INVALID_TOKEN = Map.of("message", "Invalid token");
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(
@@ -31,16 +42,35 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(UserAlreadyExistsException.class)
     public ResponseEntity<Map<String, String>> handleUserAlreadyExistsException(
             UserAlreadyExistsException ex) {
-        Map<String, String> error = new HashMap<>();
-        error.put("message", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", ex.getMessage()));
     }
 
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<Map<String, String>> handleBadCredentialsException(
             BadCredentialsException ex) {
-        Map<String, String> error = new HashMap<>();
-        error.put("message", "Invalid email or password");
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(INVALID_CREDENTIALS);
+    }
+
+    @ExceptionHandler({ InvalidTokenException.class, JwtException.class })
+    public ResponseEntity<Map<String, String>> handleInvalidTokenException(RuntimeException ex) {
+        Map<String, String> error = ex instanceof ExpiredJwtException ? EXPIRED_TOKEN
+                : ex instanceof InvalidTokenException ? Map.of("message", ex.getMessage()) : INVALID_TOKEN;
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
     }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Map<String, String>> handleServiceBusyException(
+            ServiceBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<Map<String, String>> handleLoginThrottledException(
+            LoginThrottledException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("message", ex.getMessage()));
+    }
 }
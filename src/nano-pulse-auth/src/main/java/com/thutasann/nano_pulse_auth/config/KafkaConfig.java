@@ -5,16 +5,23 @@ import java.util.Map;
 
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 
+@EnableKafka
 @Configuration
 public class KafkaConfig {
     @Value("${kafka.bootstrap-servers}")
@@ -23,6 +30,33 @@ public class KafkaConfig {
     @Value("${kafka.topic.user-auth}")
     private String userAuthTopic;
 
+    @Value("${kafka.topic.token-revocations:token-revocations}")
+    private String tokenRevocationsTopic;
+
+    @Value("${kafka.topic.user-cache-invalidations:user-cache-invalidations}")
+    private String userCacheInvalidationsTopic;
+
+    @Value("${kafka.partitions.user-auth:6}")
+    private int userAuthPartitions;
+
+    @Value("${kafka.replication-factor:1}")
+    private short replicationFactor;
+
+    @Value("${kafka.producer.linger-ms:10}")
+    private int lingerMs;
+
+    @Value("${kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    @Value("${kafka.producer.max-block-ms:5000}")
+    private long maxBlockMs;
+
+    @Value("${kafka.outbox.transaction-id-prefix:nano-pulse-auth-outbox-}")
+    private String outboxTransactionIdPrefix;
+
     @Bean
     public KafkaAdmin kafkaAdmin() {
         Map<String, Object> configs = new HashMap<>();
@@ -32,15 +66,37 @@ public class KafkaConfig {
 
     @Bean
     public NewTopic userAuthTopic() {
-        return new NewTopic(userAuthTopic, 1, (short) 1);
+        return new NewTopic(userAuthTopic, userAuthPartitions, replicationFactor);
+    }
+
+    @Bean
+    public NewTopic tokenRevocationsTopic() {
+        return new NewTopic(tokenRevocationsTopic, 1, replicationFactor);
+    }
+
+    @Bean
+    public NewTopic userCacheInvalidationsTopic() {
+        return new NewTopic(userCacheInvalidationsTopic, 1, replicationFactor);
     }
 
+    /**
+     * Idempotent producer tuned for throughput: records are batched for up to
+     * {@code linger-ms} and compressed. Events are keyed by userId, so the
+     * default partitioner keeps each user's events in order.
+     */
     @Bean
     public ProducerFactory<String, String> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
@@ -48,4 +104,44 @@ public class KafkaConfig {
     public KafkaTemplate<String, String> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    /**
+     * Transactional producer used only by the outbox relay, so each drained
+     * batch is published atomically. Only the holder of the relay lease
+     * publishes, so every node uses the same stable transactional id: a node
+     * that takes the lease over fences the producer of the node that lost it.
+     */
+    @Bean
+    public ProducerFactory<String, String> outboxProducerFactory() {
+        DefaultKafkaProducerFactory<String, String> factory = new DefaultKafkaProducerFactory<>(
+                producerFactory().getConfigurationProperties());
+        factory.setTransactionIdPrefix(outboxTransactionIdPrefix);
+        return factory;
+    }
+
+    @Bean
+    public KafkaTemplate<String, String> outboxKafkaTemplate() {
+        return new KafkaTemplate<>(outboxProducerFactory());
+    }
+
+    /**
+     * Every auth node consumes with its own group id, so consumers only need
+     * messages produced after they joined.
+     */
+    @Bean
+    public ConsumerFactory<String, String> consumerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        return new DefaultKafkaConsumerFactory<>(configProps);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        return factory;
+    }
 }
@@ -4,9 +4,22 @@ import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.mongodb.DefaultMongoCommandTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsCommandListener;
+
+import java.util.Set;
+import java.util.stream.StreamSupport;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
 import org.springframework.data.mongodb.config.AbstractMongoClientConfiguration;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
@@ -19,6 +32,9 @@ public class MongoConfig extends AbstractMongoClientConfiguration {
     @Value("${spring.data.mongodb.uri}")
     private String connectionString;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Override
     protected String getDatabaseName() {
         return "nano_pulse_auth";
@@ -30,12 +46,39 @@ public class MongoConfig extends AbstractMongoClientConfiguration {
         ConnectionString connString = new ConnectionString(connectionString);
         MongoClientSettings settings = MongoClientSettings.builder()
                 .applyConnectionString(connString)
+                .addCommandListener(new MongoMetricsCommandListener(meterRegistry,
+                        new LowCardinalityCommandTagsProvider()))
                 .build();
         return MongoClients.create(settings);
     }
 
     @Bean
     public MongoTemplate mongoTemplate() {
-        return new MongoTemplate(mongoClient(), getDatabaseName());
+        return new MongoTemplate(mongoDbFactory());
+    }
+
+    /**
+     * Multi-document transactions (user, token and outbox writes) require a
+     * replica set or sharded cluster.
+     */
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory mongoDatabaseFactory) {
+        return new MongoTransactionManager(mongoDatabaseFactory);
+    }
+
+    /**
+     * Command timings ({@code mongodb.driver.commands}) tagged by command,
+     * collection and status only; the default cluster id and server address
+     * tags change per client and per host.
+     */
+    static class LowCardinalityCommandTagsProvider extends DefaultMongoCommandTagsProvider {
+        private static final Set<String> KEPT_TAGS = Set.of("command", "collection", "status");
+
+        @Override
+        public Iterable<Tag> commandTags(CommandEvent event) {
+            return StreamSupport.stream(super.commandTags(event).spliterator(), false)
+                    .filter(tag -> KEPT_TAGS.contains(tag.getKey()))
+                    .toList();
+        }
     }
-}
\ No newline at end of file
+}
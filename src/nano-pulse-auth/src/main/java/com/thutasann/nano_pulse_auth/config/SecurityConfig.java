@@ -1,16 +1,23 @@
 package com.thutasann.nano_pulse_auth.config;
 
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.thutasann.nano_pulse_auth.enums.Role;
+import com.thutasann.nano_pulse_auth.filters.JwtAuthenticationFilter;
+import com.thutasann.nano_pulse_auth.libraries.RejectionBody;
+
 import java.util.Arrays;
 
 /**
@@ -26,7 +33,8 @@ import java.util.Arrays;
 public class SecurityConfig {
 
         @Bean
-        public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                        JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
                 http
                                 .csrf(AbstractHttpConfigurer::disable)
                                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -36,10 +44,31 @@ public class SecurityConfig {
                                                                 new AntPathRequestMatcher("/error"),
                                                                 new AntPathRequestMatcher("/api/v1"),
                                                                 new AntPathRequestMatcher("/api/v1/"),
-                                                                new AntPathRequestMatcher("/api/v1/auth/**"))
+                                                                new AntPathRequestMatcher("/api/v1/auth/**"),
+                                                                new AntPathRequestMatcher("/actuator/health"))
                                                 .permitAll()
+                                                .requestMatchers(new AntPathRequestMatcher("/api/v1/users/**"))
+                                                .hasAnyAuthority(Role.ADMIN.name(), Role.SUPER_ADMIN.name())
+                                                .requestMatchers(new AntPathRequestMatcher("/api/v1/introspect"))
+                                                .hasAuthority(Role.SERVICE.name())
+                                                // metrics name routes and carry login/rejection counts:
+                                                // scrapers authenticate with a service account token
+                                                .requestMatchers(new AntPathRequestMatcher("/actuator/prometheus"))
+                                                .hasAuthority(Role.SERVICE.name())
                                                 .anyRequest().authenticated())
 
+                                // Precomputed 401/403 bodies instead of the default error dispatch
+                                .exceptionHandling(exceptions -> exceptions
+                                                .authenticationEntryPoint((request, response, ex) -> RejectionBody.UNAUTHORIZED
+                                                                .write(response))
+                                                .accessDeniedHandler((request, response, ex) -> RejectionBody.FORBIDDEN
+                                                                .write(response)))
+
+                                // Authenticate bearer tokens, no server-side session
+                                .sessionManagement(session -> session
+                                                .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+
                                 // Disable form login
                                 .formLogin(AbstractHttpConfigurer::disable)
 
@@ -49,13 +78,26 @@ public class SecurityConfig {
                 return http.build();
         }
 
+        /**
+         * The JWT filter runs inside the security chain only, not again as a
+         * plain servlet filter.
+         */
+        @Bean
+        public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration(
+                        JwtAuthenticationFilter jwtAuthenticationFilter) {
+                FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(
+                                jwtAuthenticationFilter);
+                registration.setEnabled(false);
+                return registration;
+        }
+
         @Bean
         public CorsConfigurationSource corsConfigurationSource() {
                 CorsConfiguration configuration = new CorsConfiguration();
                 configuration.setAllowedOrigins(Arrays.asList("*"));
                 configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
                 configuration.setAllowedHeaders(Arrays.asList("authorization", "content-type", "x-auth-token"));
-                configuration.setExposedHeaders(Arrays.asList("x-auth-token"));
+                configuration.setExposedHeaders(Arrays.asList("x-auth-token", "x-refreshed-token"));
                 UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
                 source.registerCorsConfiguration("/**", configuration);
                 return source;
@@ -1,40 +1,143 @@
 package com.thutasann.nano_pulse_auth.controllers;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.thutasann.nano_pulse_auth.enums.AuditAction;
+import com.thutasann.nano_pulse_auth.exceptions.LoginThrottledException;
+import com.thutasann.nano_pulse_auth.exceptions.ServiceBusyException;
+import com.thutasann.nano_pulse_auth.exceptions.UserAlreadyExistsException;
+import com.thutasann.nano_pulse_auth.libraries.ClientIpResolver;
+import com.thutasann.nano_pulse_auth.libraries.LoginThrottle;
 import com.thutasann.nano_pulse_auth.request.LoginRequest;
+import com.thutasann.nano_pulse_auth.request.RefreshTokenRequest;
 import com.thutasann.nano_pulse_auth.request.RegisterRequest;
 import com.thutasann.nano_pulse_auth.response.AuthResponse;
+import com.thutasann.nano_pulse_auth.services.AuditLogService;
 import com.thutasann.nano_pulse_auth.services.AuthenticationService;
-import com.thutasann.nano_pulse_auth.services.kafka.KafkaProducerService;
+import com.thutasann.nano_pulse_auth.services.TokenRefreshService;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("${api.prefix}/auth")
 public class AuthController {
+    private static final String LOGIN_ATTEMPTS = "auth.login.attempts";
+    private static final String REGISTER_ATTEMPTS = "auth.register.attempts";
+
     @Autowired
     private AuthenticationService authService;
 
     @Autowired
-    private KafkaProducerService kafkaProducerService;
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private ClientIpResolver clientIpResolver;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private TokenRefreshService tokenRefreshService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Register and login hash or verify passwords on the bounded hashing pool
+     * and release the servlet thread while they wait.
+     */
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(
-            @Valid @RequestBody RegisterRequest request) {
-        return ResponseEntity.ok(authService.register(request));
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(
+            @Valid @RequestBody RegisterRequest request, HttpServletRequest servletRequest) {
+        String ip = clientIpResolver.resolve(servletRequest);
+        String userAgent = servletRequest.getHeader(HttpHeaders.USER_AGENT);
+        CompletableFuture<AuthResponse> registration;
+        try {
+            registration = authService.register(request);
+        } catch (RuntimeException e) {
+            recordOutcome(REGISTER_ATTEMPTS, e);
+            throw e;
+        }
+        return registration
+                .whenComplete((response, e) -> recordOutcome(REGISTER_ATTEMPTS, e))
+                .thenApply(response -> {
+                    auditLogService.record(AuditAction.REGISTER, response.getUserId(), ip, userAgent, null);
+                    return ResponseEntity.ok(response);
+                });
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(
-            @Valid @RequestBody LoginRequest request) {
-        AuthResponse response = authService.login(request);
-        kafkaProducerService.sendUserAuthEvent("user-logged-in", response);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(
+            @Valid @RequestBody LoginRequest request, HttpServletRequest servletRequest) {
+        // throttled attempts are rejected before they reach the hashing pool
+        String ip = clientIpResolver.resolve(servletRequest);
+        String userAgent = servletRequest.getHeader(HttpHeaders.USER_AGENT);
+        CompletableFuture<AuthResponse> login;
+        try {
+            loginThrottle.acquire(ip, request.getEmail());
+            login = authService.login(request);
+        } catch (RuntimeException e) {
+            recordOutcome(LOGIN_ATTEMPTS, e);
+            throw e;
+        }
+        return login
+                .whenComplete((response, e) -> recordOutcome(LOGIN_ATTEMPTS, e))
+                .thenApply(response -> {
+                    auditLogService.record(AuditAction.LOGIN, response.getUserId(), ip, userAgent, null);
+                    return ResponseEntity.ok(response);
+                });
+    }
+
+    /**
+     * Exchange a refresh token for a new token pair. No password check, so this
+     * runs on the servlet thread rather than the hashing pool.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(tokenRefreshService.refresh(request.getRefreshToken()));
+    }
+
+    /**
+     * Count a login or register attempt by outcome; the outcome set is fixed,
+     * so the tag stays low-cardinality.
+     */
+    private void recordOutcome(String meter, Throwable error) {
+        meterRegistry.counter(meter, "outcome", outcomeOf(error)).increment();
+    }
+
+    private static String outcomeOf(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        if (cause == null) {
+            return "success";
+        } else if (cause instanceof BadCredentialsException) {
+            return "bad_credentials";
+        } else if (cause instanceof LockedException) {
+            return "locked";
+        } else if (cause instanceof DisabledException) {
+            return "disabled";
+        } else if (cause instanceof UserAlreadyExistsException) {
+            return "duplicate";
+        } else if (cause instanceof LoginThrottledException) {
+            return "throttled";
+        } else if (cause instanceof ServiceBusyException) {
+            return "busy";
+        }
+        return "error";
     }
 }
@@ -0,0 +1,31 @@
+package com.thutasann.nano_pulse_auth.controllers;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.thutasann.nano_pulse_auth.libraries.SigningKeyStore;
+
+@RestController
+@RequestMapping("${api.prefix}/auth")
+public class JwksController {
+    @Autowired
+    private SigningKeyStore signingKeyStore;
+
+    /**
+     * Public token verification keys. Other services fetch and cache these to
+     * verify tokens locally.
+     */
+    @GetMapping("/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(signingKeyStore.getJwks());
+    }
+}
@@ -0,0 +1,50 @@
+package com.thutasann.nano_pulse_auth.controllers;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.thutasann.nano_pulse_auth.request.IntrospectionRequest;
+import com.thutasann.nano_pulse_auth.response.IntrospectionResponse;
+import com.thutasann.nano_pulse_auth.response.TokenIntrospection;
+import com.thutasann.nano_pulse_auth.services.TokenIntrospectionService;
+
+import jakarta.validation.Valid;
+
+/**
+ * Outside {@code /auth/**} so it is not public: callers present a bearer
+ * token of a {@link com.thutasann.nano_pulse_auth.enums.Role#SERVICE} account.
+ */
+@RestController
+@RequestMapping("${api.prefix}")
+public class TokenIntrospectionController {
+    @Autowired
+    private TokenIntrospectionService tokenIntrospectionService;
+
+    @Value("${auth.introspection.max-cache-age:60s}")
+    private Duration maxCacheAge;
+
+    /**
+     * Validate up to 100 tokens in one call. The response may be cached until
+     * the earliest active token expires, capped at
+     * {@code auth.introspection.max-cache-age}.
+     */
+    @PostMapping("/introspect")
+    public ResponseEntity<IntrospectionResponse> introspect(@Valid @RequestBody IntrospectionRequest request) {
+        List<TokenIntrospection> results = tokenIntrospectionService.introspect(request.getTokens());
+        Duration maxAge = tokenIntrospectionService.cacheableFor(results, maxCacheAge);
+        return ResponseEntity.ok()
+                .cacheControl(maxAge.isNegative() || maxAge.isZero()
+                        ? CacheControl.noStore()
+                        : CacheControl.maxAge(maxAge).cachePrivate())
+                .body(IntrospectionResponse.builder().results(results).build());
+    }
+}
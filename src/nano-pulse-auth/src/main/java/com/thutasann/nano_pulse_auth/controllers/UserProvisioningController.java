@@ -0,0 +1,59 @@
+package com.thutasann.nano_pulse_auth.controllers;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import com.thutasann.nano_pulse_auth.services.UserProvisioningService;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("${api.prefix}/users")
+public class UserProvisioningController {
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+
+    @Autowired
+    private UserProvisioningService userProvisioningService;
+
+    /**
+     * Upper bound on one bulk upload, in place of the servlet container's
+     * default async timeout (30s on Tomcat), which would cut off a large
+     * upload mid-stream while its chunks are still being hashed and committed.
+     */
+    @Value("${auth.provisioning.timeout:30m}")
+    private Duration timeout;
+
+    /**
+     * Bulk onboarding. The upload is read and answered chunk by chunk, one
+     * NDJSON result line per input row, so neither side is held in memory.
+     * Runs as an async task bounded by {@code auth.provisioning.timeout}.
+     */
+    @PostMapping(value = "/bulk", consumes = { NDJSON, CSV }, produces = NDJSON)
+    public WebAsyncTask<Void> provision(
+            @RequestHeader("Content-Type") String contentType,
+            @RequestParam(defaultValue = "false") boolean issueTokens,
+            HttpServletRequest servletRequest,
+            HttpServletResponse servletResponse) {
+        boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(CSV));
+        servletResponse.setContentType(NDJSON);
+        // the response is written here, so the async result carries no body
+        return new WebAsyncTask<>(timeout.toMillis(), () -> {
+            ServletOutputStream output = servletResponse.getOutputStream();
+            userProvisioningService.provision(servletRequest.getInputStream(), csv, issueTokens, output);
+            output.flush();
+            return null;
+        });
+    }
+}
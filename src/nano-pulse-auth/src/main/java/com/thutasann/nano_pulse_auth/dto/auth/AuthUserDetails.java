@@ -0,0 +1,77 @@
+package com.thutasann.nano_pulse_auth.dto.auth;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.thutasann.nano_pulse_auth.dto.jwt.VerifiedClaims;
+import com.thutasann.nano_pulse_auth.entities.User;
+import com.thutasann.nano_pulse_auth.enums.Role;
+import com.thutasann.nano_pulse_auth.libraries.JwtService;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Auth User Details
+ *
+ * Slim, immutable projection of {@link User} holding only what request
+ * authentication needs. It carries no password hash.
+ */
+@Value
+@Builder
+public class AuthUserDetails implements UserDetails {
+    String id;
+    String email;
+    Role role;
+    boolean enabled;
+    boolean accountNonLocked;
+
+    public static AuthUserDetails from(User user) {
+        return AuthUserDetails.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .enabled(user.isEnabled())
+                .accountNonLocked(user.isAccountNonLocked())
+                .build();
+    }
+
+    /**
+     * Build details from signed claims alone, for stateless authentication.
+     * Returns null when the token predates the embedded role and userId claims.
+     */
+    public static AuthUserDetails fromClaims(VerifiedClaims claims) {
+        String userId = claims.get(JwtService.CLAIM_USER_ID, String.class);
+        String role = claims.get(JwtService.CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+
+        return AuthUserDetails.builder()
+                .id(userId)
+                .email(claims.getSubject())
+                .role(Role.valueOf(role))
+                .enabled(true)
+                .accountNonLocked(true)
+                .build();
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.name()));
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.thutasann.nano_pulse_auth.dto.jwt;
+
+import java.time.Instant;
+import java.util.Map;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Verified Claims
+ *
+ * Immutable view of a JWT whose signature and expiration have already been
+ * checked by {@code JwtService.verifyToken}.
+ */
+@Value
+@Builder
+public class VerifiedClaims {
+    String id;
+    String subject;
+    Instant issuedAt;
+    Instant expiresAt;
+    Map<String, Object> claims;
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+
+    public <T> T get(String name, Class<T> type) {
+        Object value = claims.get(name);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+}
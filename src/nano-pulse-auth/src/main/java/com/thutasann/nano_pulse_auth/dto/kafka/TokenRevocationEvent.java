@@ -0,0 +1,34 @@
+package com.thutasann.nano_pulse_auth.dto.kafka;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Token Revocation Event
+ *
+ * Broadcast to every auth node when a single token ({@code tokenHash}) or all
+ * of a user's tokens ({@code userId} and their new {@code epoch}) are revoked.
+ * {@code jtis} lists the token ids covered by a single-token revocation, for
+ * the stateless revoked-jti filter.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocationEvent {
+    private String tokenHash;
+
+    /**
+     * Full JWT, as sent by nodes that predate token digests; read only.
+     */
+    @Deprecated
+    private String token;
+    private String userId;
+    private List<String> jtis;
+    private Long epoch;
+    private long revokedAt;
+}
@@ -0,0 +1,22 @@
+package com.thutasann.nano_pulse_auth.dto.kafka;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * User Cache Invalidation Event
+ *
+ * Broadcast to every auth node when a user's authentication state (lock,
+ * failed attempts, role or enabled flag) changes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserCacheInvalidationEvent {
+    private String userId;
+    private String email;
+    private long invalidatedAt;
+}
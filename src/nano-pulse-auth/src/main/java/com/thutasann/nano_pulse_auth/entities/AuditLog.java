@@ -15,6 +15,9 @@ import lombok.NoArgsConstructor;
 
 /**
  * Audit Log Entity
+ *
+ * Stored in monthly collections named {@code audit_logs_yyyy_MM}; see
+ * {@code AuditLogService}.
  */
 @Document(collection = "audit_logs")
 @Data
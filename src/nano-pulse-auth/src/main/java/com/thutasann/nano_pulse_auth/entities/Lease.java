@@ -0,0 +1,29 @@
+package com.thutasann.nano_pulse_auth.entities;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lease Entity
+ *
+ * Named, time-limited lock used to elect a single node for background jobs.
+ */
+@Document(collection = "leases")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Lease {
+    @Id
+    private String name;
+
+    private String owner;
+    private LocalDateTime expiresAt;
+}
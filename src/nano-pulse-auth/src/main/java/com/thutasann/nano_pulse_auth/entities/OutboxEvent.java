@@ -0,0 +1,34 @@
+package com.thutasann.nano_pulse_auth.entities;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outbox Event Entity
+ *
+ * Domain event written in the same Mongo transaction as the change that
+ * produced it, then relayed to Kafka and deleted by {@code OutboxRelay}.
+ */
+@Document(collection = "outbox_events")
+@CompoundIndex(name = "relay_order_idx", def = "{'createdAt': 1, '_id': 1}")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    @Id
+    private String id;
+
+    private String topic;
+    private String key;
+    private String payload;
+    private LocalDateTime createdAt;
+}
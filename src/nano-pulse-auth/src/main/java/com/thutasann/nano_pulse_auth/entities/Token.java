@@ -27,8 +27,15 @@ public class Token {
     @Id
     private String id;
 
+    /**
+     * {@link com.thutasann.nano_pulse_auth.libraries.TokenDigest} of the JWT;
+     * the JWT itself is not stored.
+     */
+    @Indexed(name = "token_hash_unique", unique = true, sparse = true)
+    private String tokenHash;
+
     @Indexed
-    private String token;
+    private String jti;
 
     @Builder.Default
     private TokenType tokenType = TokenType.BEARER;
@@ -48,4 +55,5 @@ public class Token {
     private String userAgent;
     private String ipAddress;
     private LocalDateTime lastUsedAt;
+    private LocalDateTime expiresAt;
 }
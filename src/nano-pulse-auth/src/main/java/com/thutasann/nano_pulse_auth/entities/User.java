@@ -53,6 +53,13 @@ public class User implements UserDetails {
     private boolean accountNonLocked = true;
 
     private int failedAttempts;
+
+    /**
+     * Session generation; tokens issued before the latest increment are
+     * rejected.
+     */
+    private long tokenEpoch;
+
     private LocalDateTime lockTime;
     private LocalDateTime lastLoginAt;
 
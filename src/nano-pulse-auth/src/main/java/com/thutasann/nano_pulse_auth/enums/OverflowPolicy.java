@@ -0,0 +1,11 @@
+package com.thutasann.nano_pulse_auth.enums;
+
+/**
+ * What a bounded in-memory queue does with a new item when it is full.
+ */
+public enum OverflowPolicy {
+    DROP_NEWEST,
+    DROP_OLDEST,
+    /** Nothing is dropped; the caller processes the item itself. */
+    CALLER_RUNS
+}
@@ -0,0 +1,8 @@
+package com.thutasann.nano_pulse_auth.enums;
+
+public enum ProvisioningStatus {
+    CREATED,
+    DUPLICATE,
+    INVALID,
+    FAILED
+}
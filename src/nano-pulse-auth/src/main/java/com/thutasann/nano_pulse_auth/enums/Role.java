@@ -3,5 +3,7 @@ package com.thutasann.nano_pulse_auth.enums;
 public enum Role {
     USER,
     ADMIN,
-    SUPER_ADMIN
+    SUPER_ADMIN,
+    /** Backend service account, allowed to introspect other users' tokens. */
+    SERVICE
 }
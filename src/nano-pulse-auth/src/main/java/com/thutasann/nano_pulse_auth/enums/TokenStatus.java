@@ -0,0 +1,9 @@
+package com.thutasann.nano_pulse_auth.enums;
+
+public enum TokenStatus {
+    VALID,
+    REVOKED,
+    EXPIRED,
+    UNKNOWN,
+    INVALID
+}
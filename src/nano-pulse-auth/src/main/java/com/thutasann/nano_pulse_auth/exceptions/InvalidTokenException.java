@@ -0,0 +1,10 @@
+package com.thutasann.nano_pulse_auth.exceptions;
+
+/**
+ * Invalid Token Exception
+ */
+public class InvalidTokenException extends RuntimeException {
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.thutasann.nano_pulse_auth.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Login Throttled Exception
+ */
+@Getter
+public class LoginThrottledException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
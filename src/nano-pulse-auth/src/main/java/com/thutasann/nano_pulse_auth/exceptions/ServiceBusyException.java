@@ -0,0 +1,10 @@
+package com.thutasann.nano_pulse_auth.exceptions;
+
+/**
+ * Service Busy Exception
+ */
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
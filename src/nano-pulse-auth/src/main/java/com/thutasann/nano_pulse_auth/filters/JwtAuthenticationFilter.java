@@ -1,12 +1,10 @@
 package com.thutasann.nano_pulse_auth.filters;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,12 +13,24 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thutasann.nano_pulse_auth.dto.auth.AuthUserDetails;
+import com.thutasann.nano_pulse_auth.dto.jwt.VerifiedClaims;
+import com.thutasann.nano_pulse_auth.enums.TokenStatus;
+import com.thutasann.nano_pulse_auth.libraries.ClientIpResolver;
+import com.thutasann.nano_pulse_auth.libraries.InvalidTokenGuard;
 import com.thutasann.nano_pulse_auth.libraries.JwtService;
-import com.thutasann.nano_pulse_auth.repositories.TokenRepository;
+import com.thutasann.nano_pulse_auth.libraries.RejectionBody;
+import com.thutasann.nano_pulse_auth.libraries.RevokedJtiFilter;
+import com.thutasann.nano_pulse_auth.libraries.TokenDigest;
+import com.thutasann.nano_pulse_auth.libraries.TokenEpochCache;
+import com.thutasann.nano_pulse_auth.libraries.TokenLastUsedTracker;
+import com.thutasann.nano_pulse_auth.libraries.TokenStatusCache;
+import com.thutasann.nano_pulse_auth.services.TokenRefreshService;
 
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -29,16 +39,67 @@ import lombok.NonNull;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    public static final String REFRESHED_TOKEN_HEADER = "x-refreshed-token";
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
-    private final TokenRepository tokenRepository;
+    private final TokenStatusCache tokenStatusCache;
+    private final TokenLastUsedTracker tokenLastUsedTracker;
+    private final RevokedJtiFilter revokedJtiFilter;
+    private final TokenEpochCache tokenEpochCache;
+    private final TokenRefreshService tokenRefreshService;
+    private final InvalidTokenGuard invalidTokenGuard;
+    private final ClientIpResolver clientIpResolver;
+    private final boolean statelessMode;
+    private final boolean proactiveRefresh;
+    private final long proactiveRefreshThresholdMinutes;
+    private final Timer jwtParseTimer;
+    private final Timer userLookupTimer;
+    private final Timer tokenLookupTimer;
+    private final Timer authenticatedTimer;
+    private final Timer unauthenticatedTimer;
+    private final Timer rejectedTimer;
 
     public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService,
-            TokenRepository tokenRepository) {
+            TokenStatusCache tokenStatusCache, TokenLastUsedTracker tokenLastUsedTracker,
+            RevokedJtiFilter revokedJtiFilter, TokenEpochCache tokenEpochCache,
+            TokenRefreshService tokenRefreshService, InvalidTokenGuard invalidTokenGuard,
+            ClientIpResolver clientIpResolver, MeterRegistry meterRegistry,
+            @Value("${auth.stateless.enabled:false}") boolean statelessMode,
+            @Value("${auth.proactive-refresh.enabled:false}") boolean proactiveRefresh,
+            @Value("${auth.proactive-refresh.threshold-minutes:5}") long proactiveRefreshThresholdMinutes) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
-        this.tokenRepository = tokenRepository;
+        this.tokenStatusCache = tokenStatusCache;
+        this.tokenLastUsedTracker = tokenLastUsedTracker;
+        this.revokedJtiFilter = revokedJtiFilter;
+        this.tokenEpochCache = tokenEpochCache;
+        this.tokenRefreshService = tokenRefreshService;
+        this.invalidTokenGuard = invalidTokenGuard;
+        this.clientIpResolver = clientIpResolver;
+        this.statelessMode = statelessMode;
+        this.proactiveRefresh = proactiveRefresh;
+        this.proactiveRefreshThresholdMinutes = proactiveRefreshThresholdMinutes;
+        this.jwtParseTimer = stageTimer(meterRegistry, "jwt_parse");
+        this.userLookupTimer = stageTimer(meterRegistry, "user_lookup");
+        this.tokenLookupTimer = stageTimer(meterRegistry, "token_lookup");
+        this.authenticatedTimer = outcomeTimer(meterRegistry, "authenticated");
+        this.unauthenticatedTimer = outcomeTimer(meterRegistry, "unauthenticated");
+        this.rejectedTimer = outcomeTimer(meterRegistry, "rejected");
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("auth.filter.stage.duration")
+                .description("Time spent in each stage of bearer token authentication")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private static Timer outcomeTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.filter.duration")
+                .description("Time spent authenticating a request, excluding the rest of the chain")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     @SuppressWarnings("null")
@@ -50,25 +111,59 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
         final String userEmail;
+        final long started = System.nanoTime();
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
+        // clients that keep presenting bad tokens are turned away before verification
+        final String clientIp = clientIpResolver.resolve(request);
+        if (invalidTokenGuard.isBlocked(clientIp)) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(invalidTokenGuard.retryAfterSeconds()));
+            RejectionBody.TOO_MANY_REQUESTS.write(response);
+            rejectedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return;
+        }
+
         try {
             jwt = authHeader.substring(7);
-            userEmail = jwtService.extractUsername(jwt);
+            VerifiedClaims claims = jwtService.verifyToken(jwt);
+            long parsed = System.nanoTime();
+            jwtParseTimer.record(parsed - started, TimeUnit.NANOSECONDS);
+            userEmail = claims.getSubject();
+
+            if (JwtService.isRefreshToken(claims)) {
+                // refresh tokens are only accepted by the refresh endpoint
+                reject(response, RejectionBody.INVALID_TOKEN, started);
+                return;
+            }
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                // Stateless mode trusts the signed role and userId claims and only
+                // consults the revoked jti filter; older tokens fall back to lookups
+                UserDetails userDetails = statelessMode ? AuthUserDetails.fromClaims(claims) : null;
+                boolean stateless = userDetails != null;
+                if (!stateless) {
+                    userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                }
+                long loaded = System.nanoTime();
+                userLookupTimer.record(loaded - parsed, TimeUnit.NANOSECONDS);
 
                 // Check if token is valid and not revoked
-                var isTokenValid = tokenRepository.findByToken(jwt)
-                        .map(token -> !token.isExpired() && !token.isRevoked())
-                        .orElse(false);
+                String tokenHash = TokenDigest.of(jwt);
+                boolean isTokenValid = stateless
+                        ? !revokedJtiFilter.isRevoked(claims.getId())
+                        : tokenStatusCache.getStatusByHash(tokenHash) == TokenStatus.VALID;
+
+                // Reject tokens issued before the user's latest revoke-all
+                if (isTokenValid && userDetails instanceof AuthUserDetails details) {
+                    isTokenValid = tokenEpochCache.isCurrent(details.getId(), claims);
+                }
+                tokenLookupTimer.record(System.nanoTime() - loaded, TimeUnit.NANOSECONDS);
 
-                if (jwtService.isTokenValid(jwt, userDetails) && isTokenValid) {
+                if (userEmail.equals(userDetails.getUsername()) && isTokenValid) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -76,46 +171,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
 
-                    // Update token last used time
-                    tokenRepository.findByToken(jwt).ifPresent(token -> {
-                        token.setLastUsedAt(LocalDateTime.now());
-                        tokenRepository.save(token);
-                    });
+                    // Update token last used time (written behind in batches)
+                    tokenLastUsedTracker.recordUse(tokenHash);
+
+                    // Hand out a replacement before the token expires, so clients
+                    // do not all fall back to a full login at once
+                    if (proactiveRefresh && claims.getId() != null
+                            && jwtService.isTokenNearExpiration(claims, proactiveRefreshThresholdMinutes)) {
+                        String reissued = tokenRefreshService.reissueAccessToken(claims);
+                        if (reissued != null) {
+                            response.setHeader(REFRESHED_TOKEN_HEADER, reissued);
+                        }
+                    }
                 }
             }
         } catch (ExpiredJwtException e) {
-            handleExpiredToken(response);
+            // expiry is normal client behaviour, not a strike against the IP
+            reject(response, RejectionBody.EXPIRED_TOKEN, started);
             return;
         } catch (JwtException e) {
-            handleInvalidToken(response);
+            invalidTokenGuard.recordRejection(clientIp);
+            reject(response, RejectionBody.INVALID_TOKEN, started);
             return;
         }
 
+        Timer outcome = SecurityContextHolder.getContext().getAuthentication() != null
+                ? authenticatedTimer
+                : unauthenticatedTimer;
+        outcome.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
         filterChain.doFilter(request, response);
     }
 
-    private void handleExpiredToken(HttpServletResponse resposne) throws IOException {
-        resposne.setStatus(HttpStatus.UNAUTHORIZED.value());
-        resposne.setContentType(MediaType.APPLICATION_JSON_VALUE);
-
-        Map<String, Object> body = new HashMap<>();
-        body.put("status", HttpStatus.UNAUTHORIZED.value());
-        body.put("error", "Unauthorized");
-        body.put("message", "Token has expired");
-
-        new ObjectMapper().writeValue(resposne.getOutputStream(), body);
-    }
-
-    private void handleInvalidToken(HttpServletResponse response) throws IOException {
-        response.setStatus(HttpStatus.UNAUTHORIZED.value());
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-
-        Map<String, Object> body = new HashMap<>();
-        body.put("status", HttpStatus.UNAUTHORIZED.value());
-        body.put("error", "Unauthorized");
-        body.put("message", "Invalid token");
-
-        new ObjectMapper().writeValue(response.getOutputStream(), body);
+    private void reject(HttpServletResponse response, RejectionBody body, long started) throws IOException {
+        body.write(response);
+        rejectedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
     }
 
     @Override
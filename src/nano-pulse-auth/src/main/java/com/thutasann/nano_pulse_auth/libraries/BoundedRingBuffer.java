@@ -0,0 +1,93 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded Ring Buffer
+ *
+ * Lock-free bounded multi-producer queue (Vyukov's sequence-per-slot design).
+ * Each slot carries a sequence number that tells producers and the consumer
+ * whose turn it is, so {@link #offer} and {@link #drainTo} only ever CAS a
+ * cursor and never block. Capacity is rounded up to a power of two.
+ */
+public final class BoundedRingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public BoundedRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return false if the buffer is full
+     */
+    public boolean offer(T item) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long delta = sequences.get(index) - position;
+            if (delta == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, item);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (delta < 0) {
+                return false;
+            }
+        }
+    }
+
+    public T poll() {
+        while (true) {
+            long position = head.get();
+            int index = (int) (position & mask);
+            long delta = sequences.get(index) - (position + 1);
+            if (delta == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    T item = slots.getAndSet(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return item;
+                }
+            } else if (delta < 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Move up to {@code max} items into {@code target}.
+     *
+     * @return number of items moved
+     */
+    public int drainTo(List<? super T> target, int max) {
+        int drained = 0;
+        T item;
+        while (drained < max && (item = poll()) != null) {
+            target.add(item);
+            drained++;
+        }
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(tail.get() - head.get(), 0);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,59 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.thutasann.nano_pulse_auth.dto.auth.AuthUserDetails;
+import com.thutasann.nano_pulse_auth.repositories.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cached User Details Service
+ *
+ * Serves request authentication from a TTL and size bounded cache of
+ * {@link AuthUserDetails}. Password checks at login do not go through this
+ * service; they load the full user from the repository.
+ */
+@Service
+public class CachedUserDetailsService implements UserDetailsService {
+
+    private final UserRepository userRepository;
+    private final Cache<String, AuthUserDetails> cache;
+
+    public CachedUserDetailsService(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${auth.user-details-cache.max-size:50000}") long maxSize,
+            @Value("${auth.user-details-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user_details");
+    }
+
+    @Override
+    public AuthUserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        return cache.get(email, this::load);
+    }
+
+    public void evict(String email) {
+        cache.invalidate(email);
+    }
+
+    private AuthUserDetails load(String email) {
+        return userRepository.findAuthProjectionByEmail(email)
+                .map(AuthUserDetails::from)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    }
+}
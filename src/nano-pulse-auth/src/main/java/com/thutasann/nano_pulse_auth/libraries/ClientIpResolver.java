@@ -0,0 +1,78 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Client IP Resolver
+ *
+ * Client address of a request, for the per-IP login throttle, the invalid
+ * token guard and audit records. Behind a load balancer or ingress, list it
+ * in {@code auth.trusted-proxies} (addresses or CIDR ranges) so clients are
+ * told apart by {@code X-Forwarded-For} rather than all sharing the proxy's
+ * address. The header is ignored unless the peer is a trusted proxy, so
+ * clients cannot pick their own address.
+ */
+@Component
+public class ClientIpResolver {
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public ClientIpResolver(@Value("${auth.trusted-proxies:}") List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies.stream()
+                .filter(proxy -> !proxy.isBlank())
+                .map(proxy -> new IpAddressMatcher(proxy.trim()))
+                .toList();
+    }
+
+    /**
+     * @return the remote address, or when that is a trusted proxy, the
+     *         rightmost {@code X-Forwarded-For} hop that is not
+     */
+    public String resolve(HttpServletRequest request) {
+        String remote = request.getRemoteAddr();
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded == null || trustedProxies.isEmpty() || !isTrustedProxy(remote)) {
+            return remote;
+        }
+
+        String client = remote;
+        String[] hops = forwarded.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                break;
+            }
+            client = hop;
+            if (!isTrustedProxy(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        // literal addresses only, so a forged header never triggers a DNS lookup
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (Character.digit(c, 16) < 0 && c != '.' && c != ':') {
+                return false;
+            }
+        }
+        try {
+            for (IpAddressMatcher proxy : trustedProxies) {
+                if (proxy.matches(address)) {
+                    return true;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,121 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Invalid Token Guard
+ *
+ * Per-node count of rejected bearer tokens by client IP, in fixed windows.
+ * Once an IP reaches the limit, its requests are turned away before the
+ * signature is verified, so a client replaying bad tokens stops costing an
+ * ES256 verification per request. Checking an IP that has no rejections is a
+ * single cache lookup and allocates nothing.
+ *
+ * Off unless {@code auth.invalid-token-guard.enabled} is set. Only forged or
+ * malformed tokens should be recorded; expired tokens are ordinary client
+ * behaviour. IPs come from {@link ClientIpResolver}, so proxies must be
+ * listed in {@code auth.trusted-proxies}.
+ */
+@Component
+public class InvalidTokenGuard {
+
+    private final boolean enabled;
+    private final long windowMillis;
+    private final int limit;
+    private final Cache<String, Strikes> strikes;
+    private final Counter shortCircuited;
+
+    public InvalidTokenGuard(
+            MeterRegistry meterRegistry,
+            @Value("${auth.invalid-token-guard.enabled:false}") boolean enabled,
+            @Value("${auth.invalid-token-guard.window:1m}") Duration window,
+            @Value("${auth.invalid-token-guard.limit:0}") int limit,
+            @Value("${auth.invalid-token-guard.max-keys:100000}") long maxKeys) {
+        this.enabled = enabled && limit > 0;
+        this.windowMillis = window.toMillis();
+        this.limit = limit;
+        this.strikes = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(window.multipliedBy(2))
+                .build();
+        this.shortCircuited = Counter.builder("auth.filter.short_circuited")
+                .description("Requests rejected before verification because their IP kept sending invalid tokens")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param ip - Client address
+     * @return true if the IP has reached the limit in the current window
+     */
+    public boolean isBlocked(String ip) {
+        if (!enabled || ip == null) {
+            return false;
+        }
+        Strikes entry = strikes.getIfPresent(ip);
+        if (entry != null && entry.count(System.currentTimeMillis() / windowMillis) >= limit) {
+            shortCircuited.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Count a forged or malformed token from the IP.
+     *
+     * @param ip - Client address
+     */
+    public void recordRejection(String ip) {
+        if (!enabled || ip == null) {
+            return;
+        }
+        strikes.get(ip, key -> new Strikes()).increment(System.currentTimeMillis() / windowMillis);
+    }
+
+    /**
+     * @return seconds until the current window ends
+     */
+    public long retryAfterSeconds() {
+        long remaining = windowMillis - System.currentTimeMillis() % windowMillis;
+        return Math.max(Duration.ofMillis(remaining).toSeconds(), 1);
+    }
+
+    /**
+     * Window and count packed into one long, updated with a single CAS: the
+     * low 24 bits hold the count and the rest the window number.
+     */
+    private static final class Strikes {
+        private static final int COUNT_BITS = 24;
+        private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+        private final AtomicLong state = new AtomicLong();
+
+        int count(long currentWindow) {
+            long current = state.get();
+            return (current >>> COUNT_BITS) == windowBits(currentWindow) ? (int) (current & COUNT_MASK) : 0;
+        }
+
+        void increment(long currentWindow) {
+            long window = windowBits(currentWindow);
+            state.updateAndGet(current -> {
+                if ((current >>> COUNT_BITS) != window) {
+                    return (window << COUNT_BITS) | 1;
+                }
+                return (current & COUNT_MASK) == COUNT_MASK ? current : current + 1;
+            });
+        }
+
+        private static long windowBits(long window) {
+            return window & (-1L >>> COUNT_BITS);
+        }
+    }
+}
@@ -1,30 +1,111 @@
 package com.thutasann.nano_pulse_auth.libraries;
 
 import java.security.Key;
+import java.time.Instant;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.thutasann.nano_pulse_auth.dto.jwt.VerifiedClaims;
+import com.thutasann.nano_pulse_auth.entities.User;
+import com.thutasann.nano_pulse_auth.enums.TokenType;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import jakarta.annotation.PostConstruct;
 
+/**
+ * JWT Service
+ *
+ * Signs tokens with the active ES256 key from {@link SigningKeyStore} and
+ * tags them with its {@code kid}, so other services can verify them offline
+ * against the published JWKS. Tokens without a {@code kid} are legacy HS256
+ * tokens and are still accepted while {@code jwt.legacy-hs256.accept} is on.
+ */
 @Service
 public class JwtService {
-    @Value("${jwt.secret}")
+    public static final String CLAIM_USER_ID = "userId";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_EPOCH = "epoch";
+    public static final String CLAIM_TOKEN_TYPE = "tokenType";
+    /** Epoch seconds after which no token of this login session may be reissued. */
+    public static final String CLAIM_SESSION_EXPIRY = "sessionExp";
+
+    @Value("${jwt.secret:}")
     private String secretKey;
 
+    @Value("${jwt.legacy-hs256.accept:true}")
+    private boolean acceptLegacyHs256;
+
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
     @Value("${jwt.refresh-token.expiration}")
     private long refreshExpiration;
 
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    @Autowired
+    private SigningKeyStore signingKeyStore;
+
+    private Key legacyVerificationKey;
+    private JwtParser jwtParser;
+    private Cache<String, VerifiedClaims> verifiedClaimsCache;
+
+    @PostConstruct
+    void init() {
+        if (acceptLegacyHs256 && secretKey != null && !secretKey.isBlank()) {
+            byte[] keyBytes = java.util.Base64.getDecoder().decode(secretKey);
+            this.legacyVerificationKey = io.jsonwebtoken.security.Keys.hmacShaKeyFor(keyBytes);
+        }
+        this.jwtParser = Jwts.parserBuilder().setSigningKeyResolver(new KidKeyResolver()).build();
+        this.verifiedClaimsCache = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new ExpireAtTokenExpiry())
+                .build();
+    }
+
+    /**
+     * Verify a token once and return its claims. Repeat calls for the same token
+     * are served from a bounded cache until the token's {@code exp}.
+     *
+     * @param token - JWT
+     * @return verified claims
+     * @throws io.jsonwebtoken.ExpiredJwtException if the token has expired
+     * @throws io.jsonwebtoken.JwtException        if the token is malformed or
+     *                                             its signature is invalid
+     */
+    public VerifiedClaims verifyToken(String token) {
+        VerifiedClaims cached = verifiedClaimsCache.getIfPresent(token);
+        if (cached != null && !cached.isExpired(Instant.now())) {
+            return cached;
+        }
+
+        // a stale entry falls through so the parser raises ExpiredJwtException
+        VerifiedClaims verified = toVerifiedClaims(extractAllClaims(token));
+        verifiedClaimsCache.put(token, verified);
+        return verified;
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -42,8 +123,27 @@ public class JwtService {
         return buildToken(extraClaims, userDetails, jwtExpiration);
     }
 
+    /**
+     * @param notAfter - Latest expiry the token may have, such as the end of
+     *                 the session it belongs to
+     */
+    public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails, Instant notAfter) {
+        long remaining = notAfter.toEpochMilli() - System.currentTimeMillis();
+        return buildToken(extraClaims, userDetails, Math.min(jwtExpiration, remaining));
+    }
+
     public String generateRefereshToken(UserDetails userDetails) {
-        return buildToken(new HashMap<>(), userDetails, refreshExpiration);
+        return generateRefereshToken(new HashMap<>(), userDetails);
+    }
+
+    public String generateRefereshToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        claims.put(CLAIM_TOKEN_TYPE, TokenType.REFRESH.name());
+        return buildToken(claims, userDetails, refreshExpiration);
+    }
+
+    public static boolean isRefreshToken(VerifiedClaims claims) {
+        return TokenType.REFRESH.name().equals(claims.get(CLAIM_TOKEN_TYPE, String.class));
     }
 
     public Long getExpirationTime() {
@@ -65,6 +165,11 @@ public class JwtService {
         return metadata;
     }
 
+    public boolean isTokenNearExpiration(VerifiedClaims claims, long thresholdMinutes) {
+        return claims.getExpiresAt() != null
+                && claims.getExpiresAt().isBefore(Instant.now().plusSeconds(thresholdMinutes * 60));
+    }
+
     public boolean isTokenNearExpiration(String token, long thresholdMinutes) {
         Date expiration = extractExpiration(token);
         Date threshold = new Date(System.currentTimeMillis() + (thresholdMinutes * 60 * 1000));
@@ -80,22 +185,91 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSignInKey()).build().parseClaimsJws(token).getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
+    private VerifiedClaims toVerifiedClaims(Claims claims) {
+        return VerifiedClaims.builder()
+                .id(claims.getId())
+                .subject(claims.getSubject())
+                .issuedAt(claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null)
+                .expiresAt(claims.getExpiration() != null ? claims.getExpiration().toInstant() : null)
+                .claims(Collections.unmodifiableMap(new LinkedHashMap<>(claims)))
+                .build();
     }
 
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        if (userDetails instanceof User user) {
+            if (user.getId() != null) {
+                claims.putIfAbsent(CLAIM_USER_ID, user.getId());
+            }
+            if (user.getRole() != null) {
+                claims.putIfAbsent(CLAIM_ROLE, user.getRole().name());
+            }
+            claims.putIfAbsent(CLAIM_EPOCH, user.getTokenEpoch());
+        }
+        // a new session lasts as long as a refresh token issued alongside it
+        claims.putIfAbsent(CLAIM_SESSION_EXPIRY, (System.currentTimeMillis() + refreshExpiration) / 1000);
+
         return Jwts
                 .builder()
-                .setClaims(extraClaims)
+                .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setHeaderParam(JwsHeader.KEY_ID, signingKeyStore.getActiveKid())
+                .signWith(signingKeyStore.getActivePrivateKey(), SignatureAlgorithm.ES256)
                 .compact();
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = java.util.Base64.getDecoder().decode(secretKey);
-        return io.jsonwebtoken.security.Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Picks the verification key by {@code kid}; tokens without one fall back
+     * to the legacy HS256 secret.
+     */
+    private class KidKeyResolver extends SigningKeyResolverAdapter {
+        @Override
+        public Key resolveSigningKey(@SuppressWarnings("rawtypes") JwsHeader header, Claims claims) {
+            String kid = header.getKeyId();
+            if (kid == null) {
+                if (legacyVerificationKey == null) {
+                    throw new UnsupportedJwtException("Token has no key id");
+                }
+                return legacyVerificationKey;
+            }
+
+            Key key = signingKeyStore.getVerificationKey(kid);
+            if (key == null) {
+                throw new UnsupportedJwtException("Unknown signing key id: " + kid);
+            }
+            return key;
+        }
+    }
+
+    /**
+     * Evicts each cache entry at the moment its token expires.
+     */
+    private static class ExpireAtTokenExpiry implements Expiry<String, VerifiedClaims> {
+        @Override
+        public long expireAfterCreate(String token, VerifiedClaims claims, long currentTime) {
+            if (claims.getExpiresAt() == null) {
+                return Long.MAX_VALUE;
+            }
+            long millis = claims.getExpiresAt().toEpochMilli() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedClaims claims, long currentTime,
+                long currentDuration) {
+            return expireAfterCreate(token, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedClaims claims, long currentTime,
+                long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
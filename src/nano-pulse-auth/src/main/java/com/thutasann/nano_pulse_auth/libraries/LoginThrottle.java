@@ -0,0 +1,130 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.thutasann.nano_pulse_auth.exceptions.LoginThrottledException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Login Throttle
+ *
+ * Per-node sliding-window limiter for login attempts, keyed separately by
+ * source IP (one client spraying many emails) and by email (many clients
+ * targeting one account). It runs before the password check so throttled
+ * attempts cost neither BCrypt time nor Mongo writes.
+ *
+ * Each key holds the counts of the current and previous fixed windows; the
+ * previous count is weighted by how much of it still overlaps the sliding
+ * window. Counts are swapped in with a CAS, so there are no locks, and the
+ * keys live in a size-bounded cache so a spray of distinct emails cannot grow
+ * memory without limit.
+ */
+@Component
+public class LoginThrottle {
+
+    private final boolean enabled;
+    private final long windowMillis;
+    private final int perIpLimit;
+    private final int perEmailLimit;
+    private final Cache<String, AtomicReference<Window>> ipWindows;
+    private final Cache<String, AtomicReference<Window>> emailWindows;
+    private final Counter ipThrottled;
+    private final Counter emailThrottled;
+
+    public LoginThrottle(
+            MeterRegistry meterRegistry,
+            @Value("${auth.login-throttle.enabled:true}") boolean enabled,
+            @Value("${auth.login-throttle.window:1m}") Duration window,
+            @Value("${auth.login-throttle.per-ip-limit:30}") int perIpLimit,
+            @Value("${auth.login-throttle.per-email-limit:10}") int perEmailLimit,
+            @Value("${auth.login-throttle.max-keys:100000}") long maxKeys) {
+        this.enabled = enabled;
+        this.windowMillis = window.toMillis();
+        this.perIpLimit = perIpLimit;
+        this.perEmailLimit = perEmailLimit;
+        this.ipWindows = newWindowCache(maxKeys, window);
+        this.emailWindows = newWindowCache(maxKeys, window);
+        this.ipThrottled = throttledCounter(meterRegistry, "ip");
+        this.emailThrottled = throttledCounter(meterRegistry, "email");
+    }
+
+    /**
+     * Count a login attempt against both keys.
+     *
+     * @param ip    - Client address
+     * @param email - Attempted email
+     * @throws LoginThrottledException if either key is over its limit
+     */
+    public void acquire(String ip, String email) {
+        if (!enabled) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (ip != null && !tryAcquire(ipWindows, ip, perIpLimit, now)) {
+            ipThrottled.increment();
+            throw throttled(now);
+        }
+        if (email != null && !tryAcquire(emailWindows, email.toLowerCase(Locale.ROOT), perEmailLimit, now)) {
+            emailThrottled.increment();
+            throw throttled(now);
+        }
+    }
+
+    private boolean tryAcquire(Cache<String, AtomicReference<Window>> windows, String key, int limit, long now) {
+        AtomicReference<Window> ref = windows.get(key, k -> new AtomicReference<>(new Window(now / windowMillis, 0, 0)));
+        long index = now / windowMillis;
+        double previousWeight = 1.0 - (double) (now % windowMillis) / windowMillis;
+
+        while (true) {
+            Window current = ref.get();
+            Window rolled = current.rollTo(index);
+            if (rolled.previous() * previousWeight + rolled.current() >= limit) {
+                // rejected attempts do not count, so a blocked client recovers
+                ref.compareAndSet(current, rolled);
+                return false;
+            }
+            if (ref.compareAndSet(current, new Window(index, rolled.previous(), rolled.current() + 1))) {
+                return true;
+            }
+        }
+    }
+
+    private LoginThrottledException throttled(long now) {
+        long retryAfterMillis = windowMillis - now % windowMillis;
+        return new LoginThrottledException("Too many login attempts, try again later",
+                Math.max(Duration.ofMillis(retryAfterMillis).toSeconds(), 1));
+    }
+
+    private static Cache<String, AtomicReference<Window>> newWindowCache(long maxKeys, Duration window) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(window.multipliedBy(2))
+                .build();
+    }
+
+    private static Counter throttledCounter(MeterRegistry meterRegistry, String key) {
+        return Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected by the sliding-window throttle")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    private record Window(long index, int previous, int current) {
+        Window rollTo(long target) {
+            if (target == index) {
+                return this;
+            }
+            return new Window(target, target == index + 1 ? current : 0, 0);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.thutasann.nano_pulse_auth.entities.Lease;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Mongo Lease Service
+ *
+ * Single-leader election for scheduled jobs. A node holds a named lease until
+ * it expires; the holder renews it on each run, and any node may take it over
+ * once it has lapsed.
+ */
+@Service
+@RequiredArgsConstructor
+public class MongoLeaseService {
+
+    private final MongoTemplate mongoTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * @param name - Lease name
+     * @param ttl  - How long the lease is held if not renewed
+     * @return true if this node now holds the lease
+     */
+    public boolean tryAcquire(String name, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(Criteria.where("_id").is(name)
+                .orOperator(Criteria.where("expiresAt").lt(now), Criteria.where("owner").is(nodeId)));
+        Update update = new Update()
+                .set("owner", nodeId)
+                .set("expiresAt", now.plus(ttl));
+        try {
+            Lease lease = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), Lease.class);
+            return lease != null && nodeId.equals(lease.getOwner());
+        } catch (DuplicateKeyException e) {
+            // another node holds an unexpired lease, so the upsert collided on _id
+            return false;
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
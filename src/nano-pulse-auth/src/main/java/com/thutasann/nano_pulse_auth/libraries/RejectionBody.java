@@ -0,0 +1,45 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rejection Body
+ *
+ * The standard 401/403/429 responses, serialized once. Rejections are the
+ * hottest path during token-replay floods, so writing one is a status, two
+ * headers and a byte copy: no maps, no {@code ObjectMapper}.
+ */
+public enum RejectionBody {
+    INVALID_TOKEN(HttpStatus.UNAUTHORIZED, "Invalid token"),
+    EXPIRED_TOKEN(HttpStatus.UNAUTHORIZED, "Token has expired"),
+    UNAUTHORIZED(HttpStatus.UNAUTHORIZED, "Authentication required"),
+    FORBIDDEN(HttpStatus.FORBIDDEN, "Access denied"),
+    TOO_MANY_REQUESTS(HttpStatus.TOO_MANY_REQUESTS, "Too many invalid tokens, try again later");
+
+    private final int status;
+    private final byte[] json;
+
+    RejectionBody(HttpStatus status, String message) {
+        this.status = status.value();
+        this.json = ("{\"status\":" + status.value()
+                + ",\"error\":\"" + status.getReasonPhrase()
+                + "\",\"message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void write(HttpServletResponse response) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(json.length);
+        response.getOutputStream().write(json);
+    }
+}
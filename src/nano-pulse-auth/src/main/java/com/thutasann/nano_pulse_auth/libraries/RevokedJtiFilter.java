@@ -0,0 +1,201 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.thutasann.nano_pulse_auth.entities.Token;
+import com.thutasann.nano_pulse_auth.enums.TokenType;
+import com.thutasann.nano_pulse_auth.repositories.TokenRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Revoked JTI Filter
+ *
+ * Per-node Bloom filter of the {@code jti}s of revoked tokens that have not
+ * yet expired. A miss means the token is definitely not revoked; a hit is
+ * confirmed with an exact lookup. Bloom filters cannot remove entries, so the
+ * filter is rebuilt from Mongo periodically to drop tokens that have since
+ * expired.
+ */
+@Component
+@Slf4j
+public class RevokedJtiFilter {
+
+    private final MongoTemplate mongoTemplate;
+    private final TokenRepository tokenRepository;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Counter exactChecks;
+    private final Counter confirmedRevocations;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+
+    public RevokedJtiFilter(
+            MongoTemplate mongoTemplate,
+            TokenRepository tokenRepository,
+            MeterRegistry meterRegistry,
+            @Value("${auth.stateless.enabled:false}") boolean enabled,
+            @Value("${auth.stateless.revoked-filter.expected-insertions:100000}") long expectedInsertions,
+            @Value("${auth.stateless.revoked-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.mongoTemplate = mongoTemplate;
+        this.tokenRepository = tokenRepository;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.exactChecks = Counter.builder("auth.revoked_jti_filter.exact_checks")
+                .description("Bloom filter hits that required an exact revocation lookup")
+                .register(meterRegistry);
+        this.confirmedRevocations = Counter.builder("auth.revoked_jti_filter.confirmed")
+                .description("Exact lookups that confirmed a revoked token")
+                .register(meterRegistry);
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    /**
+     * @param jti - Token id claim
+     * @return true if the token has been revoked or expired server-side
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+
+        exactChecks.increment();
+        boolean revoked = tokenRepository.findByJti(jti)
+                .map(token -> token.isRevoked() || token.isExpired())
+                .orElse(false);
+        if (revoked) {
+            confirmedRevocations.increment();
+        }
+        return revoked;
+    }
+
+    public void add(String jti) {
+        if (jti == null) {
+            return;
+        }
+        filter.put(jti);
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(jti);
+        }
+    }
+
+    public void addAll(Collection<String> jtis) {
+        if (jtis != null) {
+            jtis.forEach(this::add);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${auth.stateless.revoked-filter.rebuild-interval:1h}", initialDelayString = "${auth.stateless.revoked-filter.rebuild-interval:1h}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        // revocations arriving while the snapshot streams are added to both filters;
+        // refresh tokens are left out: redeemed ones are revoked by rotation and
+        // stateless checks only ever look up access token jtis
+        BloomFilter rebuilt = new BloomFilter(expectedInsertions, falsePositiveRate);
+        rebuilding = rebuilt;
+        Query query = Query.query(Criteria.where("revoked").is(true)
+                .and("tokenType").ne(TokenType.REFRESH)
+                .and("expiresAt").gt(LocalDateTime.now())
+                .and("jti").ne(null));
+        query.fields().include("jti");
+
+        long count = 0;
+        try (var tokens = mongoTemplate.stream(query, Token.class)) {
+            // not peek().count(): count() may skip the pipeline when the size is known
+            for (var iterator = tokens.iterator(); iterator.hasNext();) {
+                rebuilt.put(iterator.next().getJti());
+                count++;
+            }
+        } catch (RuntimeException e) {
+            rebuilding = null;
+            throw e;
+        }
+
+        filter = rebuilt;
+        rebuilding = null;
+        log.info("Rebuilt revoked jti filter with {} live revoked tokens", count);
+    }
+
+    /**
+     * Lock-free Bloom filter over an {@link AtomicLongArray} bit set, using
+     * double hashing to derive the probe positions.
+     */
+    private static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(long expectedInsertions, double falsePositiveRate) {
+            long n = Math.max(expectedInsertions, 1);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.max((m + 63) / 64, 1);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words * 64;
+            this.hashCount = Math.max((int) Math.round((double) bitCount / n * Math.log(2)), 1);
+        }
+
+        void put(String value) {
+            long hash1 = hash(value, 0x9E3779B97F4A7C15L);
+            long hash2 = hash(value, 0xC2B2AE3D27D4EB4FL);
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, bitCount);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current;
+                do {
+                    current = bits.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash1 = hash(value, 0x9E3779B97F4A7C15L);
+            long hash2 = hash(value, 0xC2B2AE3D27D4EB4FL);
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, bitCount);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String value, long seed) {
+            long h = seed;
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001B3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Signing Key Store
+ *
+ * ES256 (P-256) key pairs used to sign and verify JWTs, identified by
+ * {@code kid}. Keys come from a PKCS12 keystore where each alias is a kid:
+ * the {@code active-kid} entry signs new tokens and every other entry stays
+ * published for verification until the tokens it signed have expired. To
+ * rotate, add a new alias, switch {@code active-kid}, and drop the old alias
+ * once the refresh token lifetime has passed.
+ *
+ * A keystore is required. Every node must sign with the same keys and keep
+ * them across restarts: an ephemeral key would give each node its own JWKS
+ * and end every session on restart. For local development only,
+ * {@code jwt.signing.ephemeral=true} generates a throwaway key instead.
+ */
+@Component
+@Slf4j
+public class SigningKeyStore {
+
+    private static final int P256_COORDINATE_BYTES = 32;
+
+    private final String activeKid;
+    private final PrivateKey activePrivateKey;
+    private final Map<String, PublicKey> verificationKeys;
+    private final Map<String, Object> jwks;
+
+    @Autowired
+    public SigningKeyStore(
+            ResourceLoader resourceLoader,
+            @Value("${jwt.signing.keystore:}") String keystoreLocation,
+            @Value("${jwt.signing.keystore-password:}") String keystorePassword,
+            @Value("${jwt.signing.active-kid:}") String activeKid,
+            @Value("${jwt.signing.ephemeral:false}") boolean ephemeral) throws Exception {
+        if (keystoreLocation.isBlank()) {
+            if (!ephemeral) {
+                throw new IllegalStateException("No jwt.signing.keystore configured; set "
+                        + "jwt.signing.ephemeral=true to sign with a throwaway key in local development");
+            }
+            log.warn("jwt.signing.ephemeral is set, signing with a throwaway key; tokens will not verify on "
+                    + "other nodes or after a restart");
+            KeyPair keyPair = generateKeyPair();
+            this.activeKid = UUID.randomUUID().toString();
+            this.activePrivateKey = keyPair.getPrivate();
+            this.verificationKeys = Map.of(this.activeKid, keyPair.getPublic());
+        } else {
+            char[] password = keystorePassword.toCharArray();
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            try (InputStream in = resourceLoader.getResource(keystoreLocation).getInputStream()) {
+                keyStore.load(in, password);
+            }
+
+            Map<String, PublicKey> keys = new LinkedHashMap<>();
+            for (String alias : Collections.list(keyStore.aliases())) {
+                Certificate certificate = keyStore.getCertificate(alias);
+                if (certificate != null && certificate.getPublicKey() instanceof ECPublicKey publicKey) {
+                    keys.put(alias, publicKey);
+                }
+            }
+            if (!keys.containsKey(activeKid)) {
+                throw new IllegalStateException("Active signing key not found in keystore: " + activeKid);
+            }
+            this.activeKid = activeKid;
+            this.activePrivateKey = (PrivateKey) keyStore.getKey(activeKid, password);
+            this.verificationKeys = Collections.unmodifiableMap(keys);
+        }
+        this.jwks = buildJwks(verificationKeys);
+        log.info("Loaded {} signing keys, active kid {}", verificationKeys.size(), this.activeKid);
+    }
+
+    private SigningKeyStore(String activeKid, KeyPair keyPair) {
+        this.activeKid = activeKid;
+        this.activePrivateKey = keyPair.getPrivate();
+        this.verificationKeys = Map.of(activeKid, keyPair.getPublic());
+        this.jwks = buildJwks(verificationKeys);
+    }
+
+    /**
+     * In-memory key store with one freshly generated key, for tests and
+     * benchmarks.
+     */
+    public static SigningKeyStore generate() {
+        try {
+            return new SigningKeyStore(UUID.randomUUID().toString(), generateKeyPair());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to generate signing key", e);
+        }
+    }
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public PrivateKey getActivePrivateKey() {
+        return activePrivateKey;
+    }
+
+    /**
+     * @return the public key for {@code kid}, or null if it is not published
+     */
+    public PublicKey getVerificationKey(String kid) {
+        return verificationKeys.get(kid);
+    }
+
+    /**
+     * @return the published keys as a JWK Set (RFC 7517)
+     */
+    public Map<String, Object> getJwks() {
+        return jwks;
+    }
+
+    private static KeyPair generateKeyPair() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    private static Map<String, Object> buildJwks(Map<String, PublicKey> keys) {
+        List<Map<String, Object>> jwkList = new ArrayList<>();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        keys.forEach((kid, key) -> {
+            ECPublicKey ecKey = (ECPublicKey) key;
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("use", "sig");
+            jwk.put("alg", "ES256");
+            jwk.put("kid", kid);
+            jwk.put("x", encoder.encodeToString(toCoordinate(ecKey.getW().getAffineX())));
+            jwk.put("y", encoder.encodeToString(toCoordinate(ecKey.getW().getAffineY())));
+            jwkList.add(Collections.unmodifiableMap(jwk));
+        });
+        return Map.of("keys", Collections.unmodifiableList(jwkList));
+    }
+
+    /**
+     * Fixed-length unsigned big-endian encoding of a curve coordinate.
+     */
+    private static byte[] toCoordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length == P256_COORDINATE_BYTES) {
+            return bytes;
+        }
+        byte[] padded = new byte[P256_COORDINATE_BYTES];
+        int length = Math.min(bytes.length, P256_COORDINATE_BYTES);
+        System.arraycopy(bytes, bytes.length - length, padded, P256_COORDINATE_BYTES - length, length);
+        return padded;
+    }
+}
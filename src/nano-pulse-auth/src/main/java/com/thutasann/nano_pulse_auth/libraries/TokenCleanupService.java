@@ -1,10 +1,185 @@
 package com.thutasann.nano_pulse_auth.libraries;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import lombok.RequiredArgsConstructor;
+import com.thutasann.nano_pulse_auth.entities.Token;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Token Cleanup Service
+ *
+ * Keeps the {@code tokens} collection bounded:
+ * <ul>
+ * <li>a TTL index on {@code expiresAt} lets Mongo drop tokens once their JWT
+ * has expired. Revoked tokens are kept until then so revocation stays
+ * checkable;</li>
+ * <li>a sweeper deletes idle sessions and legacy tokens without
+ * {@code expiresAt}, walking {@code _id} ranges in chunks and pacing itself
+ * to a maximum delete rate so foreground queries are not starved.</li>
+ * </ul>
+ * Only the node holding the cleanup lease sweeps.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class TokenCleanupService {
+
+    private static final String LEASE_NAME = "token-cleanup";
+    private static final String TTL_INDEX_NAME = "token_expires_at_ttl";
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoLeaseService leaseService;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttlGrace;
+    private final Duration inactiveThreshold;
+    private final Duration legacyRetention;
+    private final int chunkSize;
+    private final int maxDeletesPerSecond;
+    private final Duration leaseTtl;
+    private final Timer sweepDuration;
+
+    public TokenCleanupService(
+            MongoTemplate mongoTemplate,
+            MongoLeaseService leaseService,
+            MeterRegistry meterRegistry,
+            @Value("${auth.token-cleanup.ttl-grace:1h}") Duration ttlGrace,
+            @Value("${auth.token-cleanup.inactive-threshold:30d}") Duration inactiveThreshold,
+            @Value("${auth.token-cleanup.legacy-retention:7d}") Duration legacyRetention,
+            @Value("${auth.token-cleanup.chunk-size:1000}") int chunkSize,
+            @Value("${auth.token-cleanup.max-deletes-per-second:5000}") int maxDeletesPerSecond,
+            @Value("${auth.token-cleanup.lease-ttl:5m}") Duration leaseTtl) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseService = leaseService;
+        this.meterRegistry = meterRegistry;
+        this.ttlGrace = ttlGrace;
+        this.inactiveThreshold = inactiveThreshold;
+        this.legacyRetention = legacyRetention;
+        this.chunkSize = chunkSize;
+        this.maxDeletesPerSecond = maxDeletesPerSecond;
+        this.leaseTtl = leaseTtl;
+        this.sweepDuration = Timer.builder("auth.token.cleanup.duration")
+                .description("Duration of a token cleanup sweep")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureTtlIndex() {
+        mongoTemplate.indexOps(Token.class).ensureIndex(new Index()
+                .on("expiresAt", Sort.Direction.ASC)
+                .named(TTL_INDEX_NAME)
+                .expire(ttlGrace));
+    }
+
+    @Scheduled(fixedDelayString = "${auth.token-cleanup.interval:15m}", initialDelayString = "${auth.token-cleanup.initial-delay:1m}")
+    public void sweep() {
+        if (!leaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            return;
+        }
+
+        sweepDuration.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            long inactive = purge("inactive", Criteria.where("revoked").is(false)
+                    .and("lastUsedAt").lt(now.minus(inactiveThreshold)));
+            long legacy = purge("legacy", Criteria.where("expiresAt").is(null)
+                    .and("_id").lt(objectIdAt(Instant.now().minus(legacyRetention))));
+            if (inactive + legacy > 0) {
+                log.info("Token cleanup purged {} inactive and {} legacy tokens", inactive, legacy);
+            }
+        });
+    }
+
+    /**
+     * Delete every token matching {@code criteria}, one {@code _id} range per
+     * chunk. The criteria are re-applied to each range delete, so tokens that
+     * changed since the range was read are left alone.
+     */
+    private long purge(String reason, Criteria criteria) {
+        Counter purged = Counter.builder("auth.token.cleanup.purged")
+                .description("Tokens deleted by the cleanup sweeper")
+                .tag("reason", reason)
+                .register(meterRegistry);
+        long total = 0;
+        ObjectId after = null;
+
+        while (true) {
+            long started = System.nanoTime();
+            Query chunkQuery = Query.query(criteria)
+                    .with(Sort.by(Sort.Direction.ASC, "_id"))
+                    .limit(chunkSize);
+            if (after != null) {
+                chunkQuery.addCriteria(new Criteria().andOperator(Criteria.where("_id").gt(after)));
+            }
+            chunkQuery.fields().include("_id");
+            List<Document> ids = mongoTemplate.find(chunkQuery, Document.class, mongoTemplate.getCollectionName(Token.class));
+            if (ids.isEmpty()) {
+                return total;
+            }
+
+            ObjectId first = ids.get(0).getObjectId("_id");
+            ObjectId last = ids.get(ids.size() - 1).getObjectId("_id");
+            Query rangeDelete = Query.query(new Criteria().andOperator(criteria,
+                    Criteria.where("_id").gte(first).lte(last)));
+            long deleted = mongoTemplate.remove(rangeDelete, Token.class).getDeletedCount();
+            purged.increment(deleted);
+            total += deleted;
+            after = last;
+
+            if (ids.size() < chunkSize
+                    || !leaseService.tryAcquire(LEASE_NAME, leaseTtl)
+                    || !pace(deleted, System.nanoTime() - started)) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Sleep long enough to hold the sweep to {@code maxDeletesPerSecond}.
+     *
+     * @return false if interrupted
+     */
+    private boolean pace(long deleted, long elapsedNanos) {
+        if (maxDeletesPerSecond <= 0) {
+            return true;
+        }
+        long budgetNanos = TimeUnit.SECONDS.toNanos(deleted) / maxDeletesPerSecond;
+        long sleepNanos = budgetNanos - elapsedNanos;
+        if (sleepNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Smallest ObjectId generated at {@code instant}; ObjectIds sort by creation
+     * time, so this bounds token age without relying on {@code createdAt}.
+     */
+    private static ObjectId objectIdAt(Instant instant) {
+        return new ObjectId(Date.from(instant), 0);
+    }
 }
@@ -0,0 +1,33 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Token Digest
+ *
+ * Fixed-length lookup key for a JWT: unpadded base64url SHA-256, 43
+ * characters however many claims the token carries. Token records, the
+ * status cache and last-use updates are keyed by the digest, so full JWTs are
+ * neither stored nor indexed.
+ */
+public final class TokenDigest {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private TokenDigest() {
+    }
+
+    public static String of(String jwt) {
+        byte[] hash = SHA_256.get().digest(jwt.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+}
@@ -0,0 +1,73 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.thutasann.nano_pulse_auth.dto.jwt.VerifiedClaims;
+import com.thutasann.nano_pulse_auth.entities.User;
+import com.thutasann.nano_pulse_auth.repositories.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Token Epoch Cache
+ *
+ * Per-node cache of each user's current session epoch. A token is accepted
+ * only if the epoch it was issued with is not older than the user's current
+ * one, so revoking all of a user's tokens is a single increment on
+ * {@link User#getTokenEpoch()}. Revocation broadcasts advance cached epochs
+ * immediately; the TTL bounds staleness if a broadcast is missed.
+ */
+@Component
+public class TokenEpochCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, Long> cache;
+
+    public TokenEpochCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${auth.token-epoch-cache.max-size:100000}") long maxSize,
+            @Value("${auth.token-epoch-cache.ttl:60s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "token_epoch");
+    }
+
+    /**
+     * @param userId - Token owner
+     * @param claims - Verified token claims
+     * @return true if the token was issued in the user's current epoch or later
+     */
+    public boolean isCurrent(String userId, VerifiedClaims claims) {
+        if (userId == null) {
+            return true;
+        }
+        Number epoch = claims.get(JwtService.CLAIM_EPOCH, Number.class);
+        return (epoch != null ? epoch.longValue() : 0L) >= cache.get(userId, this::load);
+    }
+
+    /**
+     * Record a new epoch for a user. Epochs only move forward, so a late or
+     * duplicated broadcast cannot lower it.
+     */
+    public void advance(String userId, long epoch) {
+        cache.asMap().merge(userId, epoch, Math::max);
+    }
+
+    private Long load(String userId) {
+        // a deleted user has no current epoch, so none of their tokens are valid
+        return userRepository.findTokenEpochById(userId)
+                .map(User::getTokenEpoch)
+                .orElse(Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,166 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.thutasann.nano_pulse_auth.entities.Token;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Token Hash Migration
+ *
+ * Moves token records from the full-JWT {@code token} field to
+ * {@code tokenHash}:
+ * <ol>
+ * <li>ensure the unique, sparse {@code token_hash_unique} index;</li>
+ * <li>for each chunk of records still carrying {@code token}, set its digest
+ * and unset the JWT in one unordered bulk. A record whose digest is already
+ * taken is a duplicate of the same JWT: its revocation is folded into the
+ * surviving record and the duplicate is deleted;</li>
+ * <li>drop the old {@code token} index once nothing is left to migrate.</li>
+ * </ol>
+ * Runs on startup on the node holding the migration lease; a later start
+ * picks up where an interrupted run stopped.
+ */
+@Component
+@Slf4j
+public class TokenHashMigration {
+
+    private static final String LEASE_NAME = "token-hash-migration";
+    private static final String HASH_INDEX_NAME = "token_hash_unique";
+    private static final String LEGACY_INDEX_NAME = "token";
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoLeaseService leaseService;
+    private final int chunkSize;
+    private final Duration leaseTtl;
+
+    public TokenHashMigration(
+            MongoTemplate mongoTemplate,
+            MongoLeaseService leaseService,
+            @Value("${auth.token-hash-migration.chunk-size:1000}") int chunkSize,
+            @Value("${auth.token-hash-migration.lease-ttl:5m}") Duration leaseTtl) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseService = leaseService;
+        this.chunkSize = chunkSize;
+        this.leaseTtl = leaseTtl;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        mongoTemplate.indexOps(Token.class).ensureIndex(new Index()
+                .on("tokenHash", Sort.Direction.ASC)
+                .named(HASH_INDEX_NAME)
+                .unique()
+                .sparse());
+
+        if (!leaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            return;
+        }
+
+        long migrated = 0;
+        long merged = 0;
+        ObjectId after = null;
+        while (true) {
+            Query chunkQuery = Query.query(Criteria.where("token").exists(true))
+                    .with(Sort.by(Sort.Direction.ASC, "_id"))
+                    .limit(chunkSize);
+            if (after != null) {
+                chunkQuery.addCriteria(Criteria.where("_id").gt(after));
+            }
+            chunkQuery.fields().include("_id", "token", "revoked");
+            List<Document> chunk = mongoTemplate.find(chunkQuery, Document.class,
+                    mongoTemplate.getCollectionName(Token.class));
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            int[] result = migrateChunk(chunk);
+            migrated += result[0];
+            merged += result[1];
+            after = chunk.get(chunk.size() - 1).getObjectId("_id");
+
+            if (chunk.size() < chunkSize || !leaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+                break;
+            }
+        }
+
+        if (!mongoTemplate.exists(Query.query(Criteria.where("token").exists(true)), Token.class)) {
+            dropLegacyIndex();
+        }
+        if (migrated + merged > 0) {
+            log.info("Token hash migration keyed {} tokens by digest and merged {} duplicates", migrated, merged);
+        }
+    }
+
+    /**
+     * @return records migrated and duplicates merged
+     */
+    private int[] migrateChunk(List<Document> chunk) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Token.class);
+        for (Document document : chunk) {
+            bulk.updateOne(Query.query(Criteria.where("_id").is(document.getObjectId("_id"))),
+                    new Update()
+                            .set("tokenHash", TokenDigest.of(document.getString("token")))
+                            .unset("token"));
+        }
+
+        Map<Integer, BulkWriteError> errors = new HashMap<>();
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            e.getErrors().forEach(error -> errors.put(error.getIndex(), error));
+        }
+
+        int merged = 0;
+        for (Map.Entry<Integer, BulkWriteError> entry : errors.entrySet()) {
+            Document duplicate = chunk.get(entry.getKey());
+            if (entry.getValue().getCode() != DUPLICATE_KEY) {
+                log.warn("Failed to migrate token {} - Error: {}", duplicate.getObjectId("_id"),
+                        entry.getValue().getMessage());
+                continue;
+            }
+            if (Boolean.TRUE.equals(duplicate.getBoolean("revoked"))) {
+                mongoTemplate.updateFirst(
+                        Query.query(Criteria.where("tokenHash").is(TokenDigest.of(duplicate.getString("token")))),
+                        new Update().set("revoked", true).set("expired", true),
+                        Token.class);
+            }
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(duplicate.getObjectId("_id"))), Token.class);
+            merged++;
+        }
+        return new int[] { chunk.size() - errors.size(), merged };
+    }
+
+    private void dropLegacyIndex() {
+        var indexOps = mongoTemplate.indexOps(Token.class);
+        for (IndexInfo index : indexOps.getIndexInfo()) {
+            if (LEGACY_INDEX_NAME.equals(index.getName())) {
+                indexOps.dropIndex(LEGACY_INDEX_NAME);
+                log.info("Dropped legacy full-JWT token index");
+                return;
+            }
+        }
+    }
+}
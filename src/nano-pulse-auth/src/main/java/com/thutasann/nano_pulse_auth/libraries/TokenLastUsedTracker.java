@@ -0,0 +1,102 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.thutasann.nano_pulse_auth.entities.Token;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Token Last Used Tracker
+ *
+ * Records token last-use timestamps in memory and writes them behind as one
+ * unordered bulk of {@code $max} updates per flush interval, instead of
+ * saving the token document on every authenticated request.
+ */
+@Component
+@Slf4j
+public class TokenLastUsedTracker {
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxPending;
+    private final Map<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final Counter dropped;
+    private final Counter flushed;
+
+    public TokenLastUsedTracker(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${auth.token-last-used.max-pending:50000}") int maxPending) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxPending = maxPending;
+        this.dropped = Counter.builder("auth.token.last_used.dropped")
+                .description("Last-use updates dropped because the buffer was full")
+                .register(meterRegistry);
+        this.flushed = Counter.builder("auth.token.last_used.flushed")
+                .description("Last-use updates written to Mongo")
+                .register(meterRegistry);
+        meterRegistry.gauge("auth.token.last_used.pending", pending, Map::size);
+    }
+
+    /**
+     * Record that a token was used. Repeat uses before the next flush coalesce
+     * into a single update.
+     *
+     * @param tokenHash - {@link TokenDigest} of the JWT
+     */
+    public void recordUse(String tokenHash) {
+        LocalDateTime now = LocalDateTime.now();
+        if (pending.size() >= maxPending && !pending.containsKey(tokenHash)) {
+            dropped.increment();
+            return;
+        }
+        pending.merge(tokenHash, now, (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.token-last-used.flush-interval:30s}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Token.class);
+        int count = 0;
+        for (String tokenHash : pending.keySet()) {
+            LocalDateTime lastUsedAt = pending.remove(tokenHash);
+            if (lastUsedAt != null) {
+                bulk.updateOne(Query.query(Criteria.where("tokenHash").is(tokenHash)),
+                        new Update().max("lastUsedAt", lastUsedAt));
+                count++;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+
+        try {
+            bulk.execute();
+            flushed.increment(count);
+        } catch (Exception e) {
+            log.error("Failed to flush {} token last-use updates - Error: {}", count, e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,146 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.thutasann.nano_pulse_auth.dto.kafka.TokenRevocationEvent;
+import com.thutasann.nano_pulse_auth.entities.Token;
+import com.thutasann.nano_pulse_auth.enums.TokenStatus;
+import com.thutasann.nano_pulse_auth.repositories.TokenRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Token Status Cache
+ *
+ * In-process cache of token status keyed by token digest, including negative entries
+ * for tokens that are not in the database. Valid entries live for a short TTL
+ * so a missed revocation broadcast is still bounded; revoked and expired
+ * entries are final and live longer.
+ */
+@Component
+@Slf4j
+public class TokenStatusCache {
+
+    private final TokenRepository tokenRepository;
+    private final Cache<String, CachedTokenStatus> cache;
+    private final Timer propagationLag;
+
+    public TokenStatusCache(
+            TokenRepository tokenRepository,
+            MeterRegistry meterRegistry,
+            @Value("${auth.token-status-cache.max-size:100000}") long maxSize,
+            @Value("${auth.token-status-cache.valid-ttl:60s}") Duration validTtl,
+            @Value("${auth.token-status-cache.negative-ttl:10s}") Duration negativeTtl,
+            @Value("${auth.token-status-cache.revoked-ttl:1h}") Duration revokedTtl) {
+        this.tokenRepository = tokenRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new StatusExpiry(validTtl, negativeTtl, revokedTtl))
+                .recordStats()
+                .build();
+        this.propagationLag = Timer.builder("auth.token.revocation.propagation.lag")
+                .description("Delay between a token revocation and this node applying it")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "token_status");
+    }
+
+    public TokenStatus getStatus(String jwt) {
+        return getStatusByHash(TokenDigest.of(jwt));
+    }
+
+    /**
+     * @param tokenHash - {@link TokenDigest} of the JWT, for callers that
+     *                  already computed it
+     */
+    public TokenStatus getStatusByHash(String tokenHash) {
+        return cache.get(tokenHash, this::load).status();
+    }
+
+    public void markRevoked(String tokenHash) {
+        cache.put(tokenHash, new CachedTokenStatus(TokenStatus.REVOKED, null));
+    }
+
+    public void markUserRevoked(String userId) {
+        cache.asMap().replaceAll((tokenHash, entry) -> userId.equals(entry.userId()) && entry.status() == TokenStatus.VALID
+                ? new CachedTokenStatus(TokenStatus.REVOKED, userId)
+                : entry);
+    }
+
+    /**
+     * Apply a revocation broadcast by another node (or by this one).
+     */
+    @SuppressWarnings("deprecation")
+    public void applyRevocation(TokenRevocationEvent event) {
+        if (event.getTokenHash() != null) {
+            markRevoked(event.getTokenHash());
+        } else if (event.getToken() != null) {
+            markRevoked(TokenDigest.of(event.getToken()));
+        } else if (event.getUserId() != null && event.getEpoch() == null) {
+            // revoke-all from a node that predates token epochs
+            markUserRevoked(event.getUserId());
+        }
+        if (event.getRevokedAt() > 0) {
+            long lag = Math.max(System.currentTimeMillis() - event.getRevokedAt(), 0);
+            propagationLag.record(lag, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private CachedTokenStatus load(String tokenHash) {
+        return tokenRepository.findByTokenHash(tokenHash)
+                .map(token -> new CachedTokenStatus(statusOf(token), token.getUserId()))
+                .orElse(new CachedTokenStatus(TokenStatus.UNKNOWN, null));
+    }
+
+    private static TokenStatus statusOf(Token token) {
+        if (token.isRevoked()) {
+            return TokenStatus.REVOKED;
+        }
+        return token.isExpired() ? TokenStatus.EXPIRED : TokenStatus.VALID;
+    }
+
+    private record CachedTokenStatus(TokenStatus status, String userId) {
+    }
+
+    private static class StatusExpiry implements Expiry<String, CachedTokenStatus> {
+        private final long validNanos;
+        private final long negativeNanos;
+        private final long revokedNanos;
+
+        StatusExpiry(Duration validTtl, Duration negativeTtl, Duration revokedTtl) {
+            this.validNanos = validTtl.toNanos();
+            this.negativeNanos = negativeTtl.toNanos();
+            this.revokedNanos = revokedTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String jwt, CachedTokenStatus entry, long currentTime) {
+            return switch (entry.status()) {
+                case VALID -> validNanos;
+                case UNKNOWN -> negativeNanos;
+                default -> revokedNanos;
+            };
+        }
+
+        @Override
+        public long expireAfterUpdate(String jwt, CachedTokenStatus entry, long currentTime,
+                long currentDuration) {
+            return expireAfterCreate(jwt, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String jwt, CachedTokenStatus entry, long currentTime,
+                long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.thutasann.nano_pulse_auth.repositories;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.thutasann.nano_pulse_auth.entities.OutboxEvent;
+
+@Repository
+public interface OutboxEventRepository extends MongoRepository<OutboxEvent, String> {
+}
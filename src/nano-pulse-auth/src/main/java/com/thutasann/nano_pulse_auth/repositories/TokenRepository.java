@@ -1,6 +1,6 @@
 package com.thutasann.nano_pulse_auth.repositories;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,14 +16,13 @@ public interface TokenRepository extends MongoRepository<Token, String> {
     @Query("{'userId': ?0, 'expired': false, 'revoked': false}")
     List<Token> findAllValidTokensByUser(String userId);
 
-    Optional<Token> findByToken(String token);
+    Optional<Token> findByTokenHash(String tokenHash);
 
-    @Query("{'userId': ?0}")
-    List<Token> findAllByUserId(String userId);
+    Optional<Token> findByJti(String jti);
 
-    @Query("{'expired': true, 'revoked': false}")
-    List<Token> findAllExpiredNonRevokedTokens();
+    @Query(value = "{'jti': {$in: ?0}}", fields = "{'jti': 1, 'revoked': 1, 'expired': 1}")
+    List<Token> findStatusByJtiIn(Collection<String> jtis);
 
-    @Query("{'lastUsedAt': {$lt: ?0}}")
-    List<Token> findInactiveTokens(LocalDateTime threshold);
+    @Query("{'userId': ?0}")
+    List<Token> findAllByUserId(String userId);
 }
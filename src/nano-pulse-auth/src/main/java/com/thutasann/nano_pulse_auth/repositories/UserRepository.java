@@ -2,6 +2,7 @@ package com.thutasann.nano_pulse_auth.repositories;
 
 import com.thutasann.nano_pulse_auth.entities.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,4 +12,10 @@ public interface UserRepository extends MongoRepository<User, String> {
     Optional<User> findByEmail(String email);
 
     Boolean existsByEmail(String email);
+
+    @Query(value = "{'email': ?0}", fields = "{'email': 1, 'role': 1, 'enabled': 1, 'accountNonLocked': 1}")
+    Optional<User> findAuthProjectionByEmail(String email);
+
+    @Query(value = "{'_id': ?0}", fields = "{'tokenEpoch': 1}")
+    Optional<User> findTokenEpochById(String id);
 }
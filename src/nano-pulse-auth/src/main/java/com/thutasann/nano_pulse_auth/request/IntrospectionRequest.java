@@ -0,0 +1,20 @@
+package com.thutasann.nano_pulse_auth.request;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntrospectionRequest {
+    @NotEmpty(message = "Tokens are required")
+    @Size(max = 100, message = "At most 100 tokens per request")
+    private List<String> tokens;
+}
@@ -0,0 +1,19 @@
+package com.thutasann.nano_pulse_auth.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntrospectionResponse {
+    /**
+     * One entry per requested token, in request order.
+     */
+    private List<TokenIntrospection> results;
+}
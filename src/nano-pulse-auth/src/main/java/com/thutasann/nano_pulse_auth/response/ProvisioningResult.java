@@ -0,0 +1,23 @@
+package com.thutasann.nano_pulse_auth.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.thutasann.nano_pulse_auth.enums.ProvisioningStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProvisioningResult {
+    private long line;
+    private String email;
+    private ProvisioningStatus status;
+    private String userId;
+    private String accessToken;
+    private String message;
+}
@@ -0,0 +1,26 @@
+package com.thutasann.nano_pulse_auth.response;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.thutasann.nano_pulse_auth.enums.TokenStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospection {
+    private boolean active;
+    private TokenStatus status;
+    private String subject;
+    private String userId;
+    private List<String> roles;
+    private Instant expiresAt;
+}
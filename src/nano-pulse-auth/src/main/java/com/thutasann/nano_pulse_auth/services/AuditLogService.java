@@ -0,0 +1,268 @@
+package com.thutasann.nano_pulse_auth.services;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.thutasann.nano_pulse_auth.entities.AuditLog;
+import com.thutasann.nano_pulse_auth.enums.AuditAction;
+import com.thutasann.nano_pulse_auth.libraries.BoundedRingBuffer;
+import com.thutasann.nano_pulse_auth.libraries.MongoLeaseService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Audit Log Service
+ *
+ * Request threads only build an {@link AuditLog} and offer it to a lock-free
+ * {@link BoundedRingBuffer}. A single writer thread drains the buffer and
+ * writes each batch with one {@code insertMany} once it reaches
+ * {@code batch-size} or has waited {@code flush-interval}. The writer parks
+ * while it has nothing to do and the first producer to find it parked wakes
+ * it. When the buffer is full, callers spin for at most {@code offer-timeout}
+ * and then drop the entry and count it.
+ *
+ * Entries are stored in monthly collections ({@code audit_logs_yyyy_MM}), so
+ * retention is a collection drop rather than a delete scan. The
+ * {@code @Indexed} fields of {@link AuditLog} are indexed on each monthly
+ * collection the first time this node writes to it, and only the holder of
+ * the retention lease drops expired months.
+ */
+@Service
+@Slf4j
+public class AuditLogService {
+
+    private static final String COLLECTION_PREFIX = "audit_logs_";
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final String RETENTION_LEASE_NAME = "audit-retention";
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoLeaseService leaseService;
+    private final MeterRegistry meterRegistry;
+    private final BoundedRingBuffer<AuditLog> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutNanos;
+    private final int retentionMonths;
+    private final Duration retentionLeaseTtl;
+    private final Set<String> indexedCollections = new HashSet<>();
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer flushLatency;
+
+    private Thread writer;
+    private volatile boolean running;
+    private volatile boolean writerParked;
+
+    public AuditLogService(
+            MongoTemplate mongoTemplate,
+            MongoLeaseService leaseService,
+            MeterRegistry meterRegistry,
+            @Value("${auth.audit.buffer-capacity:16384}") int bufferCapacity,
+            @Value("${auth.audit.batch-size:500}") int batchSize,
+            @Value("${auth.audit.flush-interval:200ms}") Duration flushInterval,
+            @Value("${auth.audit.offer-timeout:0ms}") Duration offerTimeout,
+            @Value("${auth.audit.retention-months:12}") int retentionMonths,
+            @Value("${auth.audit.retention-lease-ttl:10m}") Duration retentionLeaseTtl) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseService = leaseService;
+        this.meterRegistry = meterRegistry;
+        this.buffer = new BoundedRingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.retentionMonths = retentionMonths;
+        this.retentionLeaseTtl = retentionLeaseTtl;
+        this.written = Counter.builder("auth.audit.entries").tag("result", "written").register(meterRegistry);
+        this.dropped = Counter.builder("auth.audit.entries").tag("result", "dropped").register(meterRegistry);
+        this.failed = Counter.builder("auth.audit.entries").tag("result", "failed").register(meterRegistry);
+        this.flushLatency = Timer.builder("auth.audit.flush.latency")
+                .description("Time to write one audit batch")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        meterRegistry.gauge("auth.audit.buffer.size", buffer, BoundedRingBuffer::size);
+        running = true;
+        writer = new Thread(this::drain, "audit-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queue an audit entry. Never touches the database on the calling thread.
+     */
+    public void record(AuditAction action, String userId, String ipAddress, String userAgent, String details) {
+        AuditLog entry = AuditLog.builder()
+                .userId(userId)
+                .action(action)
+                .ipAddress(ipAddress)
+                .userAgent(userAgent)
+                .details(details)
+                .createdAt(LocalDateTime.now())
+                .build();
+        if (buffer.offer(entry)) {
+            wakeWriter();
+            return;
+        }
+
+        // backpressure: wait briefly for the writer to free a slot, then drop
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+            if (buffer.offer(entry)) {
+                wakeWriter();
+                return;
+            }
+        }
+        dropped.increment();
+    }
+
+    /**
+     * The writer sets {@code writerParked} before its last emptiness check and
+     * producers read it after their offer, so an entry is never left behind a
+     * parked writer.
+     */
+    private void wakeWriter() {
+        if (writerParked) {
+            writerParked = false;
+            LockSupport.unpark(writer);
+        }
+    }
+
+    public void record(AuditAction action, String userId) {
+        record(action, userId, null, null, null);
+    }
+
+    private void drain() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        long batchStarted = 0;
+        while (running || buffer.size() > 0) {
+            if (batch.isEmpty()) {
+                batchStarted = System.nanoTime();
+            }
+            if (buffer.drainTo(batch, batchSize - batch.size()) == 0) {
+                park(batch.isEmpty() ? 0 : batchStarted + flushIntervalNanos - System.nanoTime());
+            }
+            boolean full = batch.size() >= batchSize;
+            boolean due = !batch.isEmpty() && System.nanoTime() - batchStarted >= flushIntervalNanos;
+            if (full || due || (!running && !batch.isEmpty())) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    /**
+     * Park until a producer wakes the writer or, with a partial batch pending,
+     * until it is due.
+     *
+     * @param dueInNanos - Time left before the pending batch is due, or 0 if
+     *                   the batch is empty
+     */
+    private void park(long dueInNanos) {
+        writerParked = true;
+        if (running && buffer.size() == 0) {
+            if (dueInNanos == 0) {
+                LockSupport.park(this);
+            } else if (dueInNanos > 0) {
+                LockSupport.parkNanos(this, dueInNanos);
+            }
+        }
+        writerParked = false;
+    }
+
+    private void flush(List<AuditLog> batch) {
+        try {
+            flushLatency.record(() -> {
+                Map<String, List<AuditLog>> byMonth = batch.stream()
+                        .collect(Collectors.groupingBy(entry -> collectionFor(entry.getCreatedAt().toLocalDate())));
+                byMonth.forEach((collection, entries) -> {
+                    ensureIndexes(collection);
+                    mongoTemplate.insert(entries, collection);
+                });
+            });
+            written.increment(batch.size());
+        } catch (Exception e) {
+            failed.increment(batch.size());
+            log.error("Failed to write {} audit entries - Error: {}", batch.size(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Create the {@code @Indexed} fields of {@link AuditLog} on a monthly
+     * collection, which also creates the collection. Runs once per collection
+     * per node; on failure the entries are still written and the next batch
+     * retries.
+     */
+    private void ensureIndexes(String collection) {
+        if (indexedCollections.contains(collection)) {
+            return;
+        }
+        try {
+            var indexOps = mongoTemplate.indexOps(collection);
+            IndexResolver.create(mongoTemplate.getConverter().getMappingContext())
+                    .resolveIndexFor(AuditLog.class)
+                    .forEach(indexOps::ensureIndex);
+            indexedCollections.add(collection);
+        } catch (Exception e) {
+            log.warn("Failed to create indexes on audit collection {} - Error: {}", collection, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop monthly audit collections older than the retention period.
+     */
+    @Scheduled(cron = "${auth.audit.retention-cron:0 0 3 * * *}")
+    public void dropExpiredCollections() {
+        if (!leaseService.tryAcquire(RETENTION_LEASE_NAME, retentionLeaseTtl)) {
+            return;
+        }
+
+        String oldestKept = collectionFor(LocalDate.now().minusMonths(retentionMonths));
+        mongoTemplate.getCollectionNames().stream()
+                .filter(name -> name.startsWith(COLLECTION_PREFIX) && name.compareTo(oldestKept) < 0)
+                .forEach(name -> {
+                    mongoTemplate.dropCollection(name);
+                    log.info("Dropped expired audit collection {}", name);
+                });
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    static String collectionFor(LocalDate date) {
+        return COLLECTION_PREFIX + MONTH.format(date);
+    }
+}
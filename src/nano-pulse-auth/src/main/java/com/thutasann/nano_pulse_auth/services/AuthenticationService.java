@@ -1,52 +1,120 @@
 package com.thutasann.nano_pulse_auth.services;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import com.thutasann.nano_pulse_auth.entities.Token;
+import com.thutasann.nano_pulse_auth.dto.kafka.UserCacheInvalidationEvent;
 import com.thutasann.nano_pulse_auth.entities.User;
+import com.thutasann.nano_pulse_auth.enums.AuditAction;
 import com.thutasann.nano_pulse_auth.enums.Role;
 import com.thutasann.nano_pulse_auth.enums.TokenType;
 import com.thutasann.nano_pulse_auth.exceptions.UserAlreadyExistsException;
+import com.thutasann.nano_pulse_auth.libraries.CachedUserDetailsService;
 import com.thutasann.nano_pulse_auth.libraries.JwtService;
-import com.thutasann.nano_pulse_auth.repositories.TokenRepository;
+import com.thutasann.nano_pulse_auth.libraries.PasswordHashingExecutor;
+import com.thutasann.nano_pulse_auth.libraries.TransactionCallbacks;
 import com.thutasann.nano_pulse_auth.repositories.UserRepository;
 import com.thutasann.nano_pulse_auth.request.LoginRequest;
 import com.thutasann.nano_pulse_auth.request.RegisterRequest;
 import com.thutasann.nano_pulse_auth.response.AuthResponse;
+import com.thutasann.nano_pulse_auth.services.kafka.KafkaProducerService;
 
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class AuthenticationService {
+    private static final int MAX_FAILED_ATTEMPTS = 5;
+
     @Autowired
     private final UserRepository userRepository;
     @Autowired
-    private TokenRepository tokenRepository;
+    private TokenService tokenService;
     @Autowired
     private PasswordEncoder passwordEncoder;
     @Autowired
     private JwtService jwtService;
     @Autowired
     private AuthenticationManager authenticationManager;
-
-    public AuthResponse register(RegisterRequest request) {
+    @Autowired
+    private CachedUserDetailsService cachedUserDetailsService;
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private AuditLogService auditLogService;
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor persistenceExecutor;
+
+    /**
+     * Only the BCrypt encode runs on the hashing pool; the writes continue on
+     * the application task executor so hashing threads never wait on Mongo.
+     *
+     * @throws UserAlreadyExistsException if the email is taken
+     * @throws com.thutasann.nano_pulse_auth.exceptions.ServiceBusyException if the hashing pool is saturated
+     */
+    public CompletableFuture<AuthResponse> register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new UserAlreadyExistsException("Email already registered");
         }
 
+        return passwordHashingExecutor.submit(() -> passwordEncoder.encode(request.getPassword()))
+                .thenApplyAsync(hash -> saveNewUser(request, hash), persistenceExecutor);
+    }
+
+    /**
+     * Only credential verification runs on the hashing pool; failure counting
+     * and token issue continue on the application task executor.
+     *
+     * @throws com.thutasann.nano_pulse_auth.exceptions.ServiceBusyException if the hashing pool is saturated
+     */
+    public CompletableFuture<AuthResponse> login(LoginRequest loginRequest) {
+        var credentials = new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword());
+        return passwordHashingExecutor.submit(() -> authenticationManager.authenticate(credentials))
+                .handleAsync((authentication, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause()
+                                : error;
+                        if (cause instanceof BadCredentialsException) {
+                            handleFailedLogin(loginRequest.getEmail());
+                        }
+                        throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+                    }
+                    return completeLogin(loginRequest.getEmail());
+                }, persistenceExecutor);
+    }
+
+    private AuthResponse saveNewUser(RegisterRequest request, String passwordHash) {
         var user = User.builder()
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHash)
                 .role(Role.USER)
                 .enabled(true)
                 .accountNonLocked(true)
@@ -54,43 +122,44 @@ public class AuthenticationService {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        var savedUser = userRepository.save(user);
-        var accessToken = jwtService.generateToken(user);
-        var refreshToken = jwtService.generateRefereshToken(user);
-        saveUserToken(savedUser, accessToken);
+        // user, token and outbox event are written atomically
+        return transactionTemplate.execute(status -> {
+            var savedUser = userRepository.save(user);
+            var accessToken = jwtService.generateToken(user);
+            var refreshToken = jwtService.generateRefereshToken(user);
+            saveUserTokens(savedUser, accessToken, refreshToken);
+            outboxService.recordUserAuthEvent("user-registered", savedUser);
 
-        return AuthResponse.builder()
-                .userId(user.getId())
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
-                .tokenType("Bearer")
-                .expiresIn(jwtService.getExpirationTime())
-                .email(user.getEmail())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .build();
+            return buildAuthResponse(savedUser, accessToken, refreshToken);
+        });
     }
 
-    public AuthResponse login(LoginRequest loginRequest) {
-        try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
-        } catch (BadCredentialsException e) {
-            handleFailedLogin(loginRequest.getEmail());
-            throw e;
-        }
-
-        var user = userRepository.findByEmail(loginRequest.getEmail()).orElseThrow();
-
-        user.setLastLoginAt(LocalDateTime.now());
-        user.setFailedAttempts(0);
-        userRepository.save(user);
-
-        var accessToken = jwtService.generateToken(user);
-        var refreshToken = jwtService.generateRefereshToken(user);
-        revokeAllUserTokens(user);
-        saveUserToken(user, accessToken);
+    private AuthResponse completeLogin(String email) {
+        return transactionTemplate.execute(status -> {
+            var user = userRepository.findByEmail(email).orElseThrow();
+            boolean hadFailedAttempts = user.getFailedAttempts() > 0;
+
+            user.setLastLoginAt(LocalDateTime.now());
+            user.setFailedAttempts(0);
+            // only the login fields: a full save would overwrite concurrent role, lock or epoch changes
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(user.getId())),
+                    new Update().set("lastLoginAt", user.getLastLoginAt()).set("failedAttempts", 0),
+                    User.class);
+            user.setTokenEpoch(tokenService.revokeAllUserTokens(user.getId()));
+            if (hadFailedAttempts) {
+                invalidateUserDetails(user);
+            }
+
+            var accessToken = jwtService.generateToken(user);
+            var refreshToken = jwtService.generateRefereshToken(user);
+            saveUserTokens(user, accessToken, refreshToken);
+            outboxService.recordUserAuthEvent("user-logged-in", user);
+
+            return buildAuthResponse(user, accessToken, refreshToken);
+        });
+    }
 
+    private AuthResponse buildAuthResponse(User user, String accessToken, String refreshToken) {
         return AuthResponse.builder()
                 .userId(user.getId())
                 .accessToken(accessToken)
@@ -103,37 +172,47 @@ public class AuthenticationService {
                 .build();
     }
 
-    private void saveUserToken(User user, String jwtToken) {
-        var token = Token.builder()
-                .userId(user.getId())
-                .tokenType(TokenType.BEARER)
-                .expired(false)
-                .revoked(false)
-                .build();
-        tokenRepository.save(token);
-    }
-
-    private void revokeAllUserTokens(User user) {
-        var validUserTokens = tokenRepository.findAllValidTokensByUser(user.getId());
-        if (validUserTokens.isEmpty())
-            return;
-        validUserTokens.forEach(token -> {
-            token.setExpired(true);
-            token.setRevoked(true);
-        });
-        tokenRepository.saveAll(validUserTokens);
+    private void saveUserTokens(User user, String accessToken, String refreshToken) {
+        tokenService.recordIssuedToken(user.getId(), accessToken, TokenType.BEARER);
+        tokenService.recordIssuedToken(user.getId(), refreshToken, TokenType.REFRESH);
     }
 
+    /**
+     * Count a failed attempt with an atomic increment and lock the account once
+     * it reaches {@link #MAX_FAILED_ATTEMPTS}. Unknown emails are ignored.
+     */
     private void handleFailedLogin(String email) {
-        var user = userRepository.findByEmail(email).orElseThrow();
-        user.setFailedAttempts(user.getFailedAttempts() + 1);
-
-        if (user.getFailedAttempts() >= 5) {
-            user.setAccountNonLocked(false);
-            user.setLockTime(LocalDateTime.now());
+        Query byEmail = Query.query(Criteria.where("email").is(email));
+        byEmail.fields().include("email", "failedAttempts", "accountNonLocked");
+        User user = mongoTemplate.findAndModify(byEmail, new Update().inc("failedAttempts", 1),
+                FindAndModifyOptions.options().returnNew(true), User.class);
+        if (user == null || user.getFailedAttempts() < MAX_FAILED_ATTEMPTS || !user.isAccountNonLocked()) {
+            return;
         }
 
-        userRepository.save(user);
+        var lock = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(user.getId()).and("accountNonLocked").is(true)),
+                new Update().set("accountNonLocked", false).set("lockTime", LocalDateTime.now()),
+                User.class);
+        if (lock.getModifiedCount() > 0) {
+            invalidateUserDetails(user);
+            auditLogService.record(AuditAction.ACCOUNT_LOCK, user.getId());
+        }
     }
 
+    /**
+     * Evict the user from the local user details cache and tell the other auth
+     * nodes to do the same. Call after any change to lock state, failed
+     * attempts, role or enabled flag.
+     */
+    private void invalidateUserDetails(User user) {
+        TransactionCallbacks.afterCommit(() -> {
+            cachedUserDetailsService.evict(user.getEmail());
+            kafkaProducerService.sendUserCacheInvalidationEvent(UserCacheInvalidationEvent.builder()
+                    .userId(user.getId())
+                    .email(user.getEmail())
+                    .invalidatedAt(System.currentTimeMillis())
+                    .build());
+        });
+    }
 }
@@ -0,0 +1,68 @@
+package com.thutasann.nano_pulse_auth.services;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thutasann.nano_pulse_auth.dto.kafka.UserAuthEvent;
+import com.thutasann.nano_pulse_auth.entities.OutboxEvent;
+import com.thutasann.nano_pulse_auth.entities.User;
+import com.thutasann.nano_pulse_auth.repositories.OutboxEventRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${kafka.topic.user-auth}")
+    private String userAuthTopic;
+
+    /**
+     * Append a user auth event to the outbox. Call inside the transaction that
+     * persists the user and token changes, so the event is stored if and only if
+     * they are.
+     * 
+     * @param eventType - Event type
+     * @param user      - User the event is about
+     */
+    public void recordUserAuthEvent(String eventType, User user) {
+        outboxEventRepository.save(toOutboxEvent(eventType, user));
+    }
+
+    /**
+     * Append one event per user with a single bulk insert.
+     */
+    public void recordUserAuthEvents(String eventType, List<User> users) {
+        outboxEventRepository.saveAll(users.stream().map(user -> toOutboxEvent(eventType, user)).toList());
+    }
+
+    private OutboxEvent toOutboxEvent(String eventType, User user) {
+        UserAuthEvent event = UserAuthEvent.builder()
+                .eventType(eventType)
+                .timestamp(System.currentTimeMillis())
+                .userId(user.getId())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .build();
+
+        try {
+            return OutboxEvent.builder()
+                    .topic(userAuthTopic)
+                    .key(user.getId())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .createdAt(LocalDateTime.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize user auth event: " + eventType, e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.thutasann.nano_pulse_auth.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.thutasann.nano_pulse_auth.dto.jwt.VerifiedClaims;
+import com.thutasann.nano_pulse_auth.entities.Token;
+import com.thutasann.nano_pulse_auth.enums.TokenStatus;
+import com.thutasann.nano_pulse_auth.libraries.JwtService;
+import com.thutasann.nano_pulse_auth.libraries.TokenEpochCache;
+import com.thutasann.nano_pulse_auth.repositories.TokenRepository;
+import com.thutasann.nano_pulse_auth.response.TokenIntrospection;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Token Introspection Service
+ *
+ * Validates a batch of access tokens for other services: signatures and
+ * expiry through the {@link JwtService} claims cache, revoke-all through the
+ * epoch cache, and per-token revocation with one {@code $in} query over the
+ * batch's {@code jti}s.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenIntrospectionService {
+
+    private final JwtService jwtService;
+    private final TokenEpochCache tokenEpochCache;
+    private final TokenRepository tokenRepository;
+
+    public List<TokenIntrospection> introspect(List<String> tokens) {
+        List<VerifiedClaims> verified = new ArrayList<>(tokens.size());
+        List<TokenIntrospection> results = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            VerifiedClaims claims = null;
+            TokenStatus status;
+            try {
+                claims = jwtService.verifyToken(token);
+                status = JwtService.isRefreshToken(claims) ? TokenStatus.INVALID : TokenStatus.VALID;
+            } catch (ExpiredJwtException e) {
+                status = TokenStatus.EXPIRED;
+            } catch (JwtException | IllegalArgumentException e) {
+                status = TokenStatus.INVALID;
+            }
+            verified.add(status == TokenStatus.VALID ? claims : null);
+            results.add(TokenIntrospection.builder().active(false).status(status).build());
+        }
+
+        List<String> jtis = verified.stream().filter(Objects::nonNull).map(VerifiedClaims::getId)
+                .filter(Objects::nonNull).distinct().toList();
+        Map<String, Token> records = jtis.isEmpty() ? Map.of()
+                : tokenRepository.findStatusByJtiIn(jtis).stream()
+                        .collect(Collectors.toMap(Token::getJti, Function.identity(), (a, b) -> a));
+
+        for (int i = 0; i < verified.size(); i++) {
+            VerifiedClaims claims = verified.get(i);
+            if (claims != null) {
+                results.set(i, describe(claims, records.get(claims.getId())));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * How long every result in the batch may be reused: until the earliest
+     * expiry among active tokens, capped so that revocations are still seen.
+     */
+    public Duration cacheableFor(List<TokenIntrospection> results, Duration maxAge) {
+        Instant now = Instant.now();
+        return results.stream()
+                .filter(TokenIntrospection::isActive)
+                .map(TokenIntrospection::getExpiresAt)
+                .filter(Objects::nonNull)
+                .map(expiresAt -> Duration.between(now, expiresAt))
+                .reduce(maxAge, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+    }
+
+    private TokenIntrospection describe(VerifiedClaims claims, Token record) {
+        String userId = claims.get(JwtService.CLAIM_USER_ID, String.class);
+        String role = claims.get(JwtService.CLAIM_ROLE, String.class);
+        TokenStatus status;
+        if (record == null) {
+            status = TokenStatus.UNKNOWN;
+        } else if (record.isRevoked() || !tokenEpochCache.isCurrent(userId, claims)) {
+            status = TokenStatus.REVOKED;
+        } else {
+            status = record.isExpired() ? TokenStatus.EXPIRED : TokenStatus.VALID;
+        }
+
+        return TokenIntrospection.builder()
+                .active(status == TokenStatus.VALID)
+                .status(status)
+                .subject(claims.getSubject())
+                .userId(userId)
+                .roles(role != null ? List.of(role) : List.of())
+                .expiresAt(claims.getExpiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,205 @@
+package com.thutasann.nano_pulse_auth.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.thutasann.nano_pulse_auth.dto.auth.AuthUserDetails;
+import com.thutasann.nano_pulse_auth.dto.jwt.VerifiedClaims;
+import com.thutasann.nano_pulse_auth.entities.Token;
+import com.thutasann.nano_pulse_auth.enums.AuditAction;
+import com.thutasann.nano_pulse_auth.enums.TokenType;
+import com.thutasann.nano_pulse_auth.exceptions.InvalidTokenException;
+import com.thutasann.nano_pulse_auth.libraries.CachedUserDetailsService;
+import com.thutasann.nano_pulse_auth.libraries.JwtService;
+import com.thutasann.nano_pulse_auth.libraries.TokenEpochCache;
+import com.thutasann.nano_pulse_auth.repositories.TokenRepository;
+import com.thutasann.nano_pulse_auth.response.AuthResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Token Refresh Service
+ *
+ * Mints new tokens without a password check. Refresh tokens are single use:
+ * redeeming one atomically marks its record revoked, and presenting an
+ * already redeemed token is treated as theft and revokes all of the user's
+ * tokens. Access tokens close to expiry can also be reissued proactively by
+ * the authentication filter, but never past the session expiry carried in
+ * the token, so a client that stays active still has to refresh or log in
+ * once its session ends.
+ */
+@Service
+@Slf4j
+public class TokenRefreshService {
+
+    // the name @Indexed would give it, so an index created by auto-indexing is reused
+    private static final String JTI_INDEX_NAME = "jti";
+
+    private final JwtService jwtService;
+    private final TokenService tokenService;
+    private final TokenRepository tokenRepository;
+    private final TokenEpochCache tokenEpochCache;
+    private final CachedUserDetailsService cachedUserDetailsService;
+    private final AuditLogService auditLogService;
+    private final MongoTemplate mongoTemplate;
+    private final Cache<String, String> reissuedTokens;
+    private final Counter rotations;
+    private final Counter reuseDetected;
+    private final Counter proactiveRefreshes;
+
+    public TokenRefreshService(
+            JwtService jwtService,
+            TokenService tokenService,
+            TokenRepository tokenRepository,
+            TokenEpochCache tokenEpochCache,
+            CachedUserDetailsService cachedUserDetailsService,
+            AuditLogService auditLogService,
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${auth.proactive-refresh.threshold-minutes:5}") long thresholdMinutes) {
+        this.jwtService = jwtService;
+        this.tokenService = tokenService;
+        this.tokenRepository = tokenRepository;
+        this.tokenEpochCache = tokenEpochCache;
+        this.cachedUserDetailsService = cachedUserDetailsService;
+        this.auditLogService = auditLogService;
+        this.mongoTemplate = mongoTemplate;
+        // concurrent requests carrying the same expiring token share one reissue
+        this.reissuedTokens = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMinutes(thresholdMinutes))
+                .build();
+        this.rotations = Counter.builder("auth.token.refresh").tag("result", "rotated").register(meterRegistry);
+        this.reuseDetected = Counter.builder("auth.token.refresh").tag("result", "reuse_detected")
+                .register(meterRegistry);
+        this.proactiveRefreshes = Counter.builder("auth.token.refresh").tag("result", "proactive")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Index auto-creation is off, so the {@code jti} index behind rotation,
+     * revoked-jti confirmations and batch introspection is created here.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureJtiIndex() {
+        mongoTemplate.indexOps(Token.class).ensureIndex(new Index()
+                .on("jti", Sort.Direction.ASC)
+                .named(JTI_INDEX_NAME));
+    }
+
+    /**
+     * Redeem a refresh token for a new access and refresh token pair.
+     *
+     * @param refreshToken - Refresh token issued at login or by a previous refresh
+     * @throws InvalidTokenException if the token is not a live refresh token
+     */
+    public AuthResponse refresh(String refreshToken) {
+        VerifiedClaims claims = jwtService.verifyToken(refreshToken);
+        if (!JwtService.isRefreshToken(claims) || claims.getId() == null) {
+            throw new InvalidTokenException("Not a refresh token");
+        }
+
+        AuthUserDetails user = cachedUserDetailsService.loadUserByUsername(claims.getSubject());
+        if (!user.isEnabled() || !user.isAccountNonLocked() || !tokenEpochCache.isCurrent(user.getId(), claims)) {
+            throw new InvalidTokenException("Refresh token has been revoked");
+        }
+
+        Token redeemed = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("jti").is(claims.getId())
+                        .and("tokenType").is(TokenType.REFRESH)
+                        .and("revoked").is(false)),
+                new Update().set("revoked", true).set("expired", true),
+                Token.class);
+        if (redeemed == null) {
+            if (tokenRepository.findByJti(claims.getId()).isPresent()) {
+                reuseDetected.increment();
+                log.warn("Refresh token reuse detected for user {}, revoking all tokens", user.getId());
+                tokenService.revokeAllUserTokens(user.getId());
+            }
+            throw new InvalidTokenException("Refresh token has been revoked");
+        }
+
+        Map<String, Object> tokenClaims = claimsFor(user, claims);
+        String accessToken = jwtService.generateToken(tokenClaims, user);
+        String nextRefreshToken = jwtService.generateRefereshToken(tokenClaims, user);
+        tokenService.recordIssuedToken(user.getId(), accessToken, TokenType.BEARER);
+        tokenService.recordIssuedToken(user.getId(), nextRefreshToken, TokenType.REFRESH);
+        rotations.increment();
+        auditLogService.record(AuditAction.TOKEN_REFRESH, user.getId());
+
+        return AuthResponse.builder()
+                .userId(user.getId())
+                .accessToken(accessToken)
+                .refreshToken(nextRefreshToken)
+                .tokenType("Bearer")
+                .expiresIn(jwtService.getExpirationTime())
+                .email(user.getEmail())
+                .build();
+    }
+
+    /**
+     * Issue a replacement for an access token that is about to expire. Repeat
+     * calls for the same token return the same replacement. The replacement
+     * keeps the session expiry of the original and expires no later than it;
+     * the role is read from the current user record, not the old token. Each
+     * replacement is recorded like any issued token, which costs one insert
+     * per reissued token.
+     *
+     * @param claims - Verified claims of the expiring access token
+     * @return new access token, or null if the session ends with this token,
+     *         the token predates session expiry claims, or the user can no
+     *         longer sign in
+     */
+    public String reissueAccessToken(VerifiedClaims claims) {
+        Number sessionExpiry = claims.get(JwtService.CLAIM_SESSION_EXPIRY, Number.class);
+        if (sessionExpiry == null) {
+            return null;
+        }
+        Instant sessionEnd = Instant.ofEpochSecond(sessionExpiry.longValue());
+        if (claims.getExpiresAt() == null || !sessionEnd.isAfter(claims.getExpiresAt())) {
+            return null;
+        }
+
+        return reissuedTokens.get(claims.getId(), jti -> {
+            AuthUserDetails user = cachedUserDetailsService.loadUserByUsername(claims.getSubject());
+            if (!user.isEnabled() || !user.isAccountNonLocked()) {
+                return null;
+            }
+            Map<String, Object> tokenClaims = claimsFor(user, claims);
+            tokenClaims.put(JwtService.CLAIM_SESSION_EXPIRY, sessionExpiry.longValue());
+            String accessToken = jwtService.generateToken(tokenClaims, user, sessionEnd);
+            tokenService.recordIssuedToken(user.getId(), accessToken, TokenType.BEARER);
+            proactiveRefreshes.increment();
+            auditLogService.record(AuditAction.TOKEN_REFRESH, user.getId(), null, null, "proactive");
+            return accessToken;
+        });
+    }
+
+    private static Map<String, Object> claimsFor(AuthUserDetails user, VerifiedClaims source) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtService.CLAIM_USER_ID, user.getId());
+        claims.put(JwtService.CLAIM_ROLE, user.getRole().name());
+        Object epoch = source.getClaims().get(JwtService.CLAIM_EPOCH);
+        if (epoch != null) {
+            claims.put(JwtService.CLAIM_EPOCH, epoch);
+        }
+        return claims;
+    }
+}
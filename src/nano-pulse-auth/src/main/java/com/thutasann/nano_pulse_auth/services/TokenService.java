@@ -1,8 +1,29 @@
 package com.thutasann.nano_pulse_auth.services;
 
+import com.thutasann.nano_pulse_auth.dto.kafka.TokenRevocationEvent;
 import com.thutasann.nano_pulse_auth.entities.Token;
+import com.thutasann.nano_pulse_auth.entities.User;
+import com.thutasann.nano_pulse_auth.enums.TokenStatus;
+import com.thutasann.nano_pulse_auth.enums.TokenType;
+import com.thutasann.nano_pulse_auth.libraries.JwtService;
+import com.thutasann.nano_pulse_auth.libraries.RevokedJtiFilter;
+import com.thutasann.nano_pulse_auth.libraries.TokenDigest;
+import com.thutasann.nano_pulse_auth.libraries.TokenEpochCache;
+import com.thutasann.nano_pulse_auth.libraries.TokenStatusCache;
+import com.thutasann.nano_pulse_auth.libraries.TransactionCallbacks;
 import com.thutasann.nano_pulse_auth.repositories.TokenRepository;
+import com.thutasann.nano_pulse_auth.services.kafka.KafkaProducerService;
 import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -10,23 +31,96 @@ import org.springframework.stereotype.Service;
 public class TokenService {
 
     private final TokenRepository tokenRepository;
+    private final TokenStatusCache tokenStatusCache;
+    private final RevokedJtiFilter revokedJtiFilter;
+    private final TokenEpochCache tokenEpochCache;
+    private final MongoTemplate mongoTemplate;
+    private final JwtService jwtService;
+    private final KafkaProducerService kafkaProducerService;
 
     public void saveToken(Token token) {
         tokenRepository.save(token);
     }
 
+    /**
+     * Store the record of a newly issued token.
+     *
+     * @param userId - Token owner
+     * @param jwt    - Issued JWT
+     * @param type   - Access or refresh token
+     */
+    public void recordIssuedToken(String userId, String jwt, TokenType type) {
+        tokenRepository.save(issuedTokenRecord(userId, jwt, type));
+    }
+
+    /**
+     * Build, without saving, the record of a newly issued token, for callers
+     * that insert records in bulk.
+     */
+    public Token issuedTokenRecord(String userId, String jwt, TokenType type) {
+        var claims = jwtService.verifyToken(jwt);
+        return Token.builder()
+                .tokenHash(TokenDigest.of(jwt))
+                .userId(userId)
+                .jti(claims.getId())
+                .expiresAt(LocalDateTime.ofInstant(claims.getExpiresAt(), ZoneId.systemDefault()))
+                .tokenType(type)
+                .expired(false)
+                .revoked(false)
+                .build();
+    }
+
     public void revokeToken(String token) {
-        var storedToken = tokenRepository.findByToken(token);
+        String tokenHash = TokenDigest.of(token);
+        var storedToken = tokenRepository.findByTokenHash(tokenHash);
         storedToken.ifPresent(t -> {
             t.setRevoked(true);
             t.setExpired(true);
             tokenRepository.save(t);
+            broadcastRevocation(TokenRevocationEvent.builder()
+                    .tokenHash(tokenHash)
+                    .userId(t.getUserId())
+                    .jtis(t.getJti() != null ? List.of(t.getJti()) : null)
+                    .build());
         });
     }
 
+    /**
+     * Revoke every token issued to a user so far with one atomic increment of
+     * their session epoch; stored token records are left as an audit trail.
+     * The broadcast is sent once the surrounding transaction commits.
+     *
+     * @param userId - User id
+     * @return the user's new epoch, to embed in tokens issued from now on
+     */
+    public long revokeAllUserTokens(String userId) {
+        Query query = Query.query(Criteria.where("_id").is(userId));
+        query.fields().include("tokenEpoch");
+        User user = mongoTemplate.findAndModify(query, new Update().inc("tokenEpoch", 1),
+                FindAndModifyOptions.options().returnNew(true), User.class);
+        long epoch = user != null ? user.getTokenEpoch() : 0L;
+
+        TransactionCallbacks.afterCommit(() -> broadcastRevocation(TokenRevocationEvent.builder()
+                .userId(userId)
+                .epoch(epoch)
+                .build()));
+        return epoch;
+    }
+
     public boolean isTokenValid(String token) {
-        return tokenRepository.findByToken(token)
-                .map(t -> !t.isExpired() && !t.isRevoked())
-                .orElse(false);
+        return tokenStatusCache.getStatus(token) == TokenStatus.VALID;
+    }
+
+    /**
+     * Apply a revocation locally and broadcast it to the other auth nodes.
+     */
+    public void broadcastRevocation(TokenRevocationEvent event) {
+        event.setRevokedAt(System.currentTimeMillis());
+        tokenStatusCache.applyRevocation(event);
+        revokedJtiFilter.addAll(event.getJtis());
+        if (event.getUserId() != null && event.getEpoch() != null) {
+            tokenEpochCache.advance(event.getUserId(), event.getEpoch());
+        }
+        kafkaProducerService.sendTokenRevocationEvent(event);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,399 @@
+package com.thutasann.nano_pulse_auth.services;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.thutasann.nano_pulse_auth.entities.Token;
+import com.thutasann.nano_pulse_auth.entities.User;
+import com.thutasann.nano_pulse_auth.enums.ProvisioningStatus;
+import com.thutasann.nano_pulse_auth.enums.Role;
+import com.thutasann.nano_pulse_auth.enums.TokenType;
+import com.thutasann.nano_pulse_auth.libraries.JwtService;
+import com.thutasann.nano_pulse_auth.request.RegisterRequest;
+import com.thutasann.nano_pulse_auth.response.ProvisioningResult;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * User Provisioning Service
+ *
+ * Bulk onboarding from an NDJSON ({@link RegisterRequest} per line) or CSV
+ * ({@code firstName,lastName,email,password} header) stream. Rows are
+ * processed one chunk at a time:
+ * <ol>
+ * <li>validate and drop emails repeated within the chunk;</li>
+ * <li>look up already registered emails with a single {@code $in} query;</li>
+ * <li>hash passwords in parallel on a pool of its own, so onboarding never
+ * competes with logins for {@code PasswordHashingExecutor};</li>
+ * <li>insert users with one bulk write, in the same transaction as their
+ * outbox events and tokens; rows the server rejects are reported and the
+ * rest of the chunk is retried without them;</li>
+ * <li>write one result line per row and flush.</li>
+ * </ol>
+ * The next chunk is only read once the current one is written, so a slow
+ * client or database throttles the upload instead of buffering it.
+ */
+@Service
+@Slf4j
+public class UserProvisioningService {
+
+    private static final int DUPLICATE_KEY = 11000;
+    private static final List<String> CSV_COLUMNS = List.of("firstName", "lastName", "email", "password");
+
+    private final MongoTemplate mongoTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtService jwtService;
+    private final TokenService tokenService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final ThreadPoolExecutor hashingExecutor;
+
+    public UserProvisioningService(
+            MongoTemplate mongoTemplate,
+            PasswordEncoder passwordEncoder,
+            JwtService jwtService,
+            TokenService tokenService,
+            OutboxService outboxService,
+            TransactionTemplate transactionTemplate,
+            Validator validator,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${auth.provisioning.chunk-size:500}") int chunkSize,
+            @Value("${auth.provisioning.hash-threads:0}") int hashThreads) {
+        this.mongoTemplate = mongoTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtService = jwtService;
+        this.tokenService = tokenService;
+        this.outboxService = outboxService;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+
+        // caller-runs: when the pool is saturated the request thread hashes too,
+        // which slows reading the upload rather than queueing it in memory
+        int poolSize = hashThreads > 0 ? hashThreads : Math.max(Runtime.getRuntime().availableProcessors() / 2, 1);
+        AtomicInteger sequence = new AtomicInteger();
+        this.hashingExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(chunkSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "provisioning-hashing-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, hashingExecutor, "provisioning_hashing");
+    }
+
+    /**
+     * Provision every row of {@code input} and stream one
+     * {@link ProvisioningResult} per row to {@code output} as NDJSON.
+     *
+     * @param csv         - Input is CSV rather than NDJSON
+     * @param issueTokens - Also issue an access token per created user
+     */
+    public void provision(InputStream input, boolean csv, boolean issueTokens, OutputStream output)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        int created = 0;
+
+        if (csv) {
+            String header = reader.readLine();
+            lineNumber++;
+            if (header == null || !splitCsv(header).equals(CSV_COLUMNS)) {
+                write(writer, failure(lineNumber, null, ProvisioningStatus.INVALID,
+                        "CSV header must be " + String.join(",", CSV_COLUMNS)));
+                writer.flush();
+                return;
+            }
+        }
+
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(parse(lineNumber, line, csv));
+            if (chunk.size() == chunkSize) {
+                created += processChunk(chunk, issueTokens, writer);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += processChunk(chunk, issueTokens, writer);
+        }
+        writer.flush();
+        log.info("Bulk provisioning created {} users from {} lines", created, lineNumber);
+    }
+
+    private int processChunk(List<Row> chunk, boolean issueTokens, Writer writer) throws IOException {
+        List<Row> candidates = new ArrayList<>(chunk.size());
+        Set<String> seen = new HashSet<>();
+        for (Row row : chunk) {
+            if (row.result != null) {
+                continue;
+            }
+            String violation = validate(row.request);
+            if (violation != null) {
+                row.result = failure(row.line, row.request.getEmail(), ProvisioningStatus.INVALID, violation);
+            } else if (!seen.add(row.request.getEmail())) {
+                row.result = failure(row.line, row.request.getEmail(), ProvisioningStatus.DUPLICATE,
+                        "Email repeated in upload");
+            } else {
+                candidates.add(row);
+            }
+        }
+
+        Set<String> existing = findRegisteredEmails(seen);
+        candidates.removeIf(row -> {
+            if (existing.contains(row.request.getEmail())) {
+                row.result = failure(row.line, row.request.getEmail(), ProvisioningStatus.DUPLICATE,
+                        "Email already registered");
+                return true;
+            }
+            return false;
+        });
+
+        List<CompletableFuture<String>> hashes = candidates.stream()
+                .map(row -> CompletableFuture.supplyAsync(
+                        () -> passwordEncoder.encode(row.request.getPassword()), hashingExecutor))
+                .toList();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < candidates.size(); i++) {
+            RegisterRequest request = candidates.get(i).request;
+            candidates.get(i).user = User.builder()
+                    .id(new ObjectId().toHexString())
+                    .firstName(request.getFirstName())
+                    .lastName(request.getLastName())
+                    .email(request.getEmail())
+                    .password(hashes.get(i).join())
+                    .role(Role.USER)
+                    .enabled(true)
+                    .accountNonLocked(true)
+                    .failedAttempts(0)
+                    .createdAt(now)
+                    .build();
+        }
+
+        List<User> inserted = insertUsers(candidates, issueTokens);
+
+        for (Row row : chunk) {
+            write(writer, row.result);
+        }
+        writer.flush();
+        return inserted.size();
+    }
+
+    /**
+     * Insert the users with their outbox events, and tokens if requested, in
+     * one transaction. Any rejected row aborts the transaction, so the rows the
+     * server reported are marked failed and the rest are retried; a
+     * unique-key violation means the email was registered concurrently.
+     */
+    private List<User> insertUsers(List<Row> candidates, boolean issueTokens) {
+        List<Row> pending = new ArrayList<>(candidates);
+        while (!pending.isEmpty()) {
+            List<Row> attempt = pending;
+            List<User> users = attempt.stream().map(row -> row.user).toList();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    mongoTemplate.bulkOps(BulkMode.UNORDERED, User.class).insert(users).execute();
+                    outboxService.recordUserAuthEvents("user-registered", users);
+                    if (issueTokens) {
+                        issueTokens(attempt);
+                    }
+                });
+                for (Row row : attempt) {
+                    row.result = ProvisioningResult.builder()
+                            .line(row.line)
+                            .email(row.user.getEmail())
+                            .status(ProvisioningStatus.CREATED)
+                            .userId(row.user.getId())
+                            .accessToken(row.accessToken)
+                            .build();
+                }
+                return users;
+            } catch (BulkOperationException e) {
+                if (e.getErrors().isEmpty()) {
+                    throw e;
+                }
+                Set<Row> rejected = new HashSet<>();
+                for (BulkWriteError error : e.getErrors()) {
+                    Row row = attempt.get(error.getIndex());
+                    row.result = error.getCode() == DUPLICATE_KEY
+                            ? failure(row.line, row.user.getEmail(), ProvisioningStatus.DUPLICATE,
+                                    "Email already registered")
+                            : failure(row.line, row.user.getEmail(), ProvisioningStatus.FAILED, error.getMessage());
+                    rejected.add(row);
+                }
+                pending = attempt.stream().filter(row -> !rejected.contains(row)).toList();
+            }
+        }
+        return List.of();
+    }
+
+    private void issueTokens(List<Row> rows) {
+        List<Token> records = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            row.accessToken = jwtService.generateToken(row.user);
+            records.add(tokenService.issuedTokenRecord(row.user.getId(), row.accessToken, TokenType.BEARER));
+        }
+        mongoTemplate.insert(records, Token.class);
+    }
+
+    private Set<String> findRegisteredEmails(Set<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        Query query = Query.query(Criteria.where("email").in(emails));
+        query.fields().include("email").exclude("_id");
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(User.class))
+                .stream()
+                .map(document -> document.getString("email"))
+                .collect(Collectors.toSet());
+    }
+
+    private String validate(RegisterRequest request) {
+        Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private Row parse(long lineNumber, String line, boolean csv) {
+        Row row = new Row(lineNumber);
+        if (csv) {
+            List<String> fields = splitCsv(line);
+            if (fields.size() != CSV_COLUMNS.size()) {
+                row.result = failure(lineNumber, null, ProvisioningStatus.INVALID,
+                        "Expected " + CSV_COLUMNS.size() + " columns, got " + fields.size());
+                return row;
+            }
+            row.request = RegisterRequest.builder()
+                    .firstName(fields.get(0))
+                    .lastName(fields.get(1))
+                    .email(fields.get(2))
+                    .password(fields.get(3))
+                    .build();
+            return row;
+        }
+        try {
+            row.request = objectMapper.readValue(line, RegisterRequest.class);
+        } catch (JsonProcessingException e) {
+            row.result = failure(lineNumber, null, ProvisioningStatus.INVALID, "Malformed JSON");
+        }
+        return row;
+    }
+
+    /**
+     * Split one CSV record. Fields may be double-quoted, with {@code ""} as an
+     * escaped quote; quoted line breaks are not supported.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private void write(Writer writer, ProvisioningResult result) throws IOException {
+        writer.write(objectMapper.writeValueAsString(result));
+        writer.write('\n');
+    }
+
+    private static ProvisioningResult failure(long line, String email, ProvisioningStatus status, String message) {
+        return ProvisioningResult.builder()
+                .line(line)
+                .email(email)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdown();
+    }
+
+    private static final class Row {
+        private final long line;
+        private RegisterRequest request;
+        private User user;
+        private String accessToken;
+        private ProvisioningResult result;
+
+        private Row(long line) {
+            this.line = line;
+        }
+    }
+}
@@ -1,22 +1,56 @@
 package com.thutasann.nano_pulse_auth.services.kafka;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.thutasann.nano_pulse_auth.dto.kafka.UserAuthEvent;
-import com.thutasann.nano_pulse_auth.response.AuthResponse;
+import com.thutasann.nano_pulse_auth.dto.kafka.TokenRevocationEvent;
+import com.thutasann.nano_pulse_auth.dto.kafka.UserCacheInvalidationEvent;
+import com.thutasann.nano_pulse_auth.enums.OverflowPolicy;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Kafka Producer Service
+ *
+ * User auth events go through the transactional outbox ({@code OutboxRelay});
+ * this service carries the node-to-node cache broadcasts. Callers only
+ * serialize and enqueue onto a bounded in-memory handoff queue, so request
+ * latency does not depend on broker availability while the queue has room.
+ * A single dispatcher thread drains the queue into the (batching, idempotent)
+ * producer, and send callbacks feed success, failure and latency metrics.
+ *
+ * The broadcasts are token revocations and user cache invalidations, so a
+ * full queue does not drop them by default: the caller hands the record to
+ * the producer itself ({@link OverflowPolicy#CALLER_RUNS}). The drop policies
+ * remain configurable, and every drop is counted and logged at error level.
+ */
 @Service
 @Slf4j
 public class KafkaProducerService {
 
-    @Value("${kafka.topic.user-auth}")
-    private String userAuthTopic;
+    @Value("${kafka.topic.token-revocations:token-revocations}")
+    private String tokenRevocationsTopic;
+
+    @Value("${kafka.topic.user-cache-invalidations:user-cache-invalidations}")
+    private String userCacheInvalidationsTopic;
+
+    @Value("${kafka.publisher.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${kafka.publisher.overflow-policy:CALLER_RUNS}")
+    private OverflowPolicy overflowPolicy;
 
     @Autowired
     private KafkaTemplate<String, String> kafkaTemplate;
@@ -24,30 +58,130 @@ public class KafkaProducerService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<PendingRecord> queue;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    private Counter sent;
+    private Counter failed;
+    private Counter dropped;
+    private Counter overflowed;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        sent = Counter.builder("auth.kafka.publish").tag("result", "success").register(meterRegistry);
+        failed = Counter.builder("auth.kafka.publish").tag("result", "failure").register(meterRegistry);
+        dropped = Counter.builder("auth.kafka.publish").tag("result", "dropped").register(meterRegistry);
+        overflowed = Counter.builder("auth.kafka.publish.overflow")
+                .description("Broadcasts sent on the caller thread because the handoff queue was full")
+                .register(meterRegistry);
+        meterRegistry.gauge("auth.kafka.publish.queue.size", queue, BlockingQueue::size);
+
+        running = true;
+        dispatcher = new Thread(this::dispatch, "kafka-publisher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
     /**
-     * Send User Event to Kafka
+     * Broadcast a token revocation to every auth node
      * 
-     * @param eventType    - Event type
-     * @param authResponse - Auth Response
+     * @param event - Token revocation event
      */
-    public void sendUserAuthEvent(String eventType, AuthResponse authResponse) {
+    public void sendTokenRevocationEvent(TokenRevocationEvent event) {
         try {
-            UserAuthEvent event = UserAuthEvent.builder()
-                    .eventType(eventType)
-                    .timestamp(System.currentTimeMillis())
-                    .userId(authResponse.getUserId())
-                    .email(authResponse.getEmail())
-                    .firstName(authResponse.getFirstName())
-                    .lastName(authResponse.getLastName())
-                    .build();
-
-            String payload = objectMapper.writeValueAsString(event);
-            log.info("Sending Kafka message to topic: {} with payload: {}", userAuthTopic, payload);
-            kafkaTemplate.send(userAuthTopic, authResponse.getUserId(), payload);
-            log.info("Sent user auth event: {} for user: {}", eventType, authResponse.getEmail());
+            enqueue(tokenRevocationsTopic, event.getUserId(), objectMapper.writeValueAsString(event));
         } catch (Exception e) {
-            log.error("Failed to send user auth event: {} for user: {} - Error: {}",
-                    eventType, authResponse.getEmail(), e.getMessage(), e);
+            log.error("Failed to send token revocation event for user: {} - Error: {}",
+                    event.getUserId(), e.getMessage(), e);
         }
     }
+
+    /**
+     * Broadcast a user details cache invalidation to every auth node
+     * 
+     * @param event - User cache invalidation event
+     */
+    public void sendUserCacheInvalidationEvent(UserCacheInvalidationEvent event) {
+        try {
+            enqueue(userCacheInvalidationsTopic, event.getUserId(), objectMapper.writeValueAsString(event));
+        } catch (Exception e) {
+            log.error("Failed to send user cache invalidation event for user: {} - Error: {}",
+                    event.getUserId(), e.getMessage(), e);
+        }
+    }
+
+    private void enqueue(String topic, String key, String payload) {
+        PendingRecord record = new PendingRecord(topic, key, payload, System.nanoTime());
+        while (!queue.offer(record)) {
+            if (overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+                overflowed.increment();
+                send(record);
+                return;
+            }
+            if (overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+                recordDrop(record);
+                return;
+            }
+            PendingRecord oldest = queue.poll();
+            if (oldest != null) {
+                recordDrop(oldest);
+            }
+        }
+    }
+
+    private void recordDrop(PendingRecord record) {
+        dropped.increment();
+        log.error("Kafka publish queue full, dropped record for topic: {} key: {}", record.topic(), record.key());
+    }
+
+    private void dispatch() {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingRecord record = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (record != null) {
+                    send(record);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                failed.increment();
+                log.error("Failed to dispatch Kafka record - Error: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void send(PendingRecord record) {
+        kafkaTemplate.send(record.topic(), record.key(), record.payload())
+                .whenComplete((result, ex) -> {
+                    // topics are a fixed, configured set, so tagging by topic stays low-cardinality
+                    Timer.builder("auth.kafka.send.latency")
+                            .description("Time from enqueue to broker acknowledgement")
+                            .tag("topic", record.topic())
+                            .tag("result", ex == null ? "success" : "failure")
+                            .register(meterRegistry)
+                            .record(System.nanoTime() - record.enqueuedAt(), TimeUnit.NANOSECONDS);
+                    if (ex == null) {
+                        sent.increment();
+                    } else {
+                        failed.increment();
+                        log.warn("Kafka send to topic: {} failed - Error: {}", record.topic(), ex.getMessage());
+                    }
+                });
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        kafkaTemplate.flush();
+    }
+
+    private record PendingRecord(String topic, String key, String payload, long enqueuedAt) {
+    }
 }
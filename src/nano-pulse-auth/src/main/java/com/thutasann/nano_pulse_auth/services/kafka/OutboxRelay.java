@@ -0,0 +1,106 @@
+package com.thutasann.nano_pulse_auth.services.kafka;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.thutasann.nano_pulse_auth.entities.OutboxEvent;
+import com.thutasann.nano_pulse_auth.libraries.MongoLeaseService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Outbox Relay
+ *
+ * Drains {@code outbox_events} in creation order. Each batch is published in
+ * one Kafka transaction and then deleted with a single bulk remove, giving
+ * at-least-once delivery. Only the node holding the relay lease runs.
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    private static final String LEASE_NAME = "outbox-relay";
+
+    private final MongoTemplate mongoTemplate;
+    private final KafkaTemplate<String, String> outboxKafkaTemplate;
+    private final MongoLeaseService leaseService;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration leaseTtl;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter relayed;
+    private final Counter failures;
+
+    public OutboxRelay(
+            MongoTemplate mongoTemplate,
+            @Qualifier("outboxKafkaTemplate") KafkaTemplate<String, String> outboxKafkaTemplate,
+            MongoLeaseService leaseService,
+            MeterRegistry meterRegistry,
+            @Value("${auth.outbox.batch-size:500}") int batchSize,
+            @Value("${auth.outbox.max-batches-per-run:20}") int maxBatchesPerRun,
+            @Value("${auth.outbox.lease-ttl:30s}") Duration leaseTtl) {
+        this.mongoTemplate = mongoTemplate;
+        this.outboxKafkaTemplate = outboxKafkaTemplate;
+        this.leaseService = leaseService;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.leaseTtl = leaseTtl;
+        this.relayed = Counter.builder("auth.outbox.relayed").register(meterRegistry);
+        this.failures = Counter.builder("auth.outbox.relay.failures").register(meterRegistry);
+        meterRegistry.gauge("auth.outbox.relay.lag.ms", lagMillis);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.outbox.relay-interval:500ms}")
+    public void relay() {
+        if (!leaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            return;
+        }
+
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                if (relayBatch() < batchSize) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            failures.increment();
+            log.error("Outbox relay failed, batch will be retried - Error: {}", e.getMessage(), e);
+        }
+    }
+
+    private int relayBatch() {
+        Query query = new Query()
+                .with(Sort.by(Sort.Direction.ASC, "createdAt", "_id"))
+                .limit(batchSize);
+        List<OutboxEvent> batch = mongoTemplate.find(query, OutboxEvent.class);
+        if (batch.isEmpty()) {
+            lagMillis.set(0);
+            return 0;
+        }
+        lagMillis.set(Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toMillis());
+
+        outboxKafkaTemplate.executeInTransaction(operations -> {
+            batch.forEach(event -> operations.send(event.getTopic(), event.getKey(), event.getPayload()));
+            return null;
+        });
+
+        List<String> ids = batch.stream().map(OutboxEvent::getId).toList();
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), OutboxEvent.class);
+        relayed.increment(batch.size());
+        return batch.size();
+    }
+}
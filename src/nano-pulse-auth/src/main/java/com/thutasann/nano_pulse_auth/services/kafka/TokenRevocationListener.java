@@ -0,0 +1,44 @@
+package com.thutasann.nano_pulse_auth.services.kafka;
+
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thutasann.nano_pulse_auth.dto.kafka.TokenRevocationEvent;
+import com.thutasann.nano_pulse_auth.libraries.RevokedJtiFilter;
+import com.thutasann.nano_pulse_auth.libraries.TokenEpochCache;
+import com.thutasann.nano_pulse_auth.libraries.TokenStatusCache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TokenRevocationListener {
+
+    private final TokenStatusCache tokenStatusCache;
+    private final RevokedJtiFilter revokedJtiFilter;
+    private final TokenEpochCache tokenEpochCache;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Apply revocations from any auth node to the local token status cache. The
+     * random group id gives each node its own copy of every event.
+     * 
+     * @param payload - Serialized {@link TokenRevocationEvent}
+     */
+    @KafkaListener(topics = "${kafka.topic.token-revocations:token-revocations}", groupId = "nano-pulse-auth-#{T(java.util.UUID).randomUUID().toString()}")
+    public void onTokenRevocation(String payload) {
+        try {
+            TokenRevocationEvent event = objectMapper.readValue(payload, TokenRevocationEvent.class);
+            tokenStatusCache.applyRevocation(event);
+            revokedJtiFilter.addAll(event.getJtis());
+            if (event.getUserId() != null && event.getEpoch() != null) {
+                tokenEpochCache.advance(event.getUserId(), event.getEpoch());
+            }
+        } catch (Exception e) {
+            log.error("Failed to apply token revocation event - Error: {}", e.getMessage(), e);
+        }
+    }
+}
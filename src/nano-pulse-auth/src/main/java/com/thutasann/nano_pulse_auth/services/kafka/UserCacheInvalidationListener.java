@@ -0,0 +1,35 @@
+package com.thutasann.nano_pulse_auth.services.kafka;
+
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thutasann.nano_pulse_auth.dto.kafka.UserCacheInvalidationEvent;
+import com.thutasann.nano_pulse_auth.libraries.CachedUserDetailsService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UserCacheInvalidationListener {
+
+    private final CachedUserDetailsService cachedUserDetailsService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Evict users changed on any auth node from the local user details cache.
+     * 
+     * @param payload - Serialized {@link UserCacheInvalidationEvent}
+     */
+    @KafkaListener(topics = "${kafka.topic.user-cache-invalidations:user-cache-invalidations}", groupId = "nano-pulse-auth-#{T(java.util.UUID).randomUUID().toString()}")
+    public void onUserCacheInvalidation(String payload) {
+        try {
+            UserCacheInvalidationEvent event = objectMapper.readValue(payload, UserCacheInvalidationEvent.class);
+            cachedUserDetailsService.evict(event.getEmail());
+        } catch (Exception e) {
+            log.error("Failed to apply user cache invalidation event - Error: {}", e.getMessage(), e);
+        }
+    }
+}
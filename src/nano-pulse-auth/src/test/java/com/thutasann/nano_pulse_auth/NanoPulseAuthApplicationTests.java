@@ -3,7 +3,7 @@ package com.thutasann.nano_pulse_auth;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "jwt.signing.ephemeral=true")
 class NanoPulseAuthApplicationTests {
 
 	@Test
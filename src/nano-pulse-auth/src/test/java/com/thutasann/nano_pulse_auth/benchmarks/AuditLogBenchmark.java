@@ -0,0 +1,76 @@
+package com.thutasann.nano_pulse_auth.benchmarks;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.thutasann.nano_pulse_auth.enums.AuditAction;
+import com.thutasann.nano_pulse_auth.libraries.MongoLeaseService;
+import com.thutasann.nano_pulse_auth.services.AuditLogService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Audit Log Benchmark
+ *
+ * Cost of {@code AuditLogService.record} on the request thread, with four
+ * threads recording concurrently while the writer thread drains into a
+ * stub {@link MongoTemplate}. This is the per-request overhead that replaces
+ * a synchronous insert.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class AuditLogBenchmark {
+
+    private AuditLogService auditLogService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class, withSettings().stubOnly());
+        auditLogService = new AuditLogService(mongoTemplate, mock(MongoLeaseService.class), new SimpleMeterRegistry(),
+                16384, 500, Duration.ofMillis(200), Duration.ZERO, 12, Duration.ofMinutes(10));
+        ReflectionTestUtils.invokeMethod(auditLogService, "start");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(auditLogService, "stop");
+    }
+
+    @Benchmark
+    public void record() {
+        auditLogService.record(AuditAction.LOGIN, "user-1", "10.0.0.1", "jmh", null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuditLogBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,154 @@
+package com.thutasann.nano_pulse_auth.benchmarks;
+
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.thutasann.nano_pulse_auth.entities.User;
+import com.thutasann.nano_pulse_auth.enums.Role;
+import com.thutasann.nano_pulse_auth.filters.JwtAuthenticationFilter;
+import com.thutasann.nano_pulse_auth.libraries.ClientIpResolver;
+import com.thutasann.nano_pulse_auth.libraries.InvalidTokenGuard;
+import com.thutasann.nano_pulse_auth.libraries.JwtService;
+import com.thutasann.nano_pulse_auth.libraries.RevokedJtiFilter;
+import com.thutasann.nano_pulse_auth.libraries.SigningKeyStore;
+import com.thutasann.nano_pulse_auth.libraries.TokenEpochCache;
+import com.thutasann.nano_pulse_auth.libraries.TokenLastUsedTracker;
+import com.thutasann.nano_pulse_auth.libraries.TokenStatusCache;
+import com.thutasann.nano_pulse_auth.repositories.TokenRepository;
+import com.thutasann.nano_pulse_auth.repositories.UserRepository;
+import com.thutasann.nano_pulse_auth.services.TokenRefreshService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+/**
+ * Invalid Token Flood Benchmark
+ *
+ * Requests per second through {@link JwtAuthenticationFilter} while a small
+ * pool of clients replays tampered tokens. With the guard {@code off} every
+ * request pays for a signature verification and a 401; with it {@code on},
+ * each IP is verified up to the limit and then answered with a precomputed
+ * 429. The guard starts primed, as it would be a few seconds into a flood,
+ * so the numbers are steady-state rather than the first {@code LIMIT}
+ * verifications per client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class InvalidTokenFloodBenchmark {
+
+    private static final int CLIENTS = 64;
+    private static final int LIMIT = 20;
+    private static final FilterChain CHAIN = (request, response) -> {
+    };
+
+    @Param({ "on", "off" })
+    public String guard;
+
+    private JwtAuthenticationFilter filter;
+    private String tamperedToken;
+    private String[] clientIps;
+
+    @Setup
+    public void setup() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "signingKeyStore", SigningKeyStore.generate());
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", TimeUnit.DAYS.toMillis(7));
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheMaxSize", 10_000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        String token = jwtService.generateToken(User.builder()
+                .id("65f0c0ffee0000000000beef")
+                .email("bench@nanopulse.dev")
+                .role(Role.USER)
+                .build());
+        tamperedToken = token.substring(0, token.length() - 4) + "AAAA";
+        clientIps = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clientIps[i] = "203.0.113." + i;
+        }
+
+        InvalidTokenGuard invalidTokenGuard = new InvalidTokenGuard(meterRegistry, "on".equals(guard),
+                Duration.ofMinutes(10), LIMIT, 100_000);
+        for (String ip : clientIps) {
+            for (int i = 0; i < LIMIT; i++) {
+                invalidTokenGuard.recordRejection(ip);
+            }
+        }
+
+        TokenRepository tokenRepository = mock(TokenRepository.class);
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        filter = new JwtAuthenticationFilter(
+                jwtService,
+                username -> null,
+                new TokenStatusCache(tokenRepository, meterRegistry, 10_000, Duration.ofSeconds(60),
+                        Duration.ofSeconds(10), Duration.ofHours(1)),
+                new TokenLastUsedTracker(mongoTemplate, meterRegistry, 50_000),
+                new RevokedJtiFilter(mongoTemplate, tokenRepository, meterRegistry, false, 100_000, 0.01),
+                new TokenEpochCache(mock(UserRepository.class), meterRegistry, 10_000, Duration.ofSeconds(60)),
+                mock(TokenRefreshService.class),
+                invalidTokenGuard,
+                new ClientIpResolver(List.of()),
+                meterRegistry,
+                false,
+                false,
+                5);
+    }
+
+    /**
+     * Each benchmark thread cycles through the client pool.
+     */
+    @State(Scope.Thread)
+    public static class Client {
+        private int next;
+    }
+
+    @Benchmark
+    public int flood(Client client) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.setServletPath("/api/v1/users/me");
+        request.setRemoteAddr(clientIps[client.next++ % CLIENTS]);
+        request.addHeader("Authorization", "Bearer " + tamperedToken);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, CHAIN);
+        return response.getStatus();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InvalidTokenFloodBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
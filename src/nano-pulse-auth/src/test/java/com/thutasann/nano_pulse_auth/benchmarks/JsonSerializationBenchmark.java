@@ -0,0 +1,88 @@
+package com.thutasann.nano_pulse_auth.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thutasann.nano_pulse_auth.dto.kafka.UserAuthEvent;
+import com.thutasann.nano_pulse_auth.response.AuthResponse;
+
+/**
+ * JSON Serialization Benchmark
+ *
+ * Serialization of the login/register response body and of the user auth
+ * event written to the outbox, with a shared {@link ObjectMapper} as Spring
+ * uses it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private AuthResponse authResponse;
+    private UserAuthEvent userAuthEvent;
+    private String userAuthEventJson;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        objectMapper = new ObjectMapper();
+        authResponse = AuthResponse.builder()
+                .userId("65f0c0ffee0000000000beef")
+                .accessToken("eyJraWQiOiJrMSIsImFsZyI6IkVTMjU2In0." + "a".repeat(280) + "." + "b".repeat(86))
+                .refreshToken("eyJraWQiOiJrMSIsImFsZyI6IkVTMjU2In0." + "c".repeat(300) + "." + "d".repeat(86))
+                .tokenType("Bearer")
+                .expiresIn(TimeUnit.HOURS.toMillis(1))
+                .email("bench@nanopulse.dev")
+                .firstName("Bench")
+                .lastName("Mark")
+                .build();
+        userAuthEvent = UserAuthEvent.builder()
+                .eventType("user-logged-in")
+                .timestamp(System.currentTimeMillis())
+                .userId("65f0c0ffee0000000000beef")
+                .email("bench@nanopulse.dev")
+                .firstName("Bench")
+                .lastName("Mark")
+                .build();
+        userAuthEventJson = objectMapper.writeValueAsString(userAuthEvent);
+    }
+
+    @Benchmark
+    public byte[] serializeAuthResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(authResponse);
+    }
+
+    @Benchmark
+    public String serializeUserAuthEvent() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(userAuthEvent);
+    }
+
+    @Benchmark
+    public UserAuthEvent deserializeUserAuthEvent() throws JsonProcessingException {
+        return objectMapper.readValue(userAuthEventJson, UserAuthEvent.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JsonSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
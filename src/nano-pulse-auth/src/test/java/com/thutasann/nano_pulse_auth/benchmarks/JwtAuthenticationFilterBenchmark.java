@@ -0,0 +1,155 @@
+package com.thutasann.nano_pulse_auth.benchmarks;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.thutasann.nano_pulse_auth.dto.auth.AuthUserDetails;
+import com.thutasann.nano_pulse_auth.entities.Token;
+import com.thutasann.nano_pulse_auth.entities.User;
+import com.thutasann.nano_pulse_auth.enums.Role;
+import com.thutasann.nano_pulse_auth.filters.JwtAuthenticationFilter;
+import com.thutasann.nano_pulse_auth.libraries.ClientIpResolver;
+import com.thutasann.nano_pulse_auth.libraries.InvalidTokenGuard;
+import com.thutasann.nano_pulse_auth.libraries.JwtService;
+import com.thutasann.nano_pulse_auth.libraries.RevokedJtiFilter;
+import com.thutasann.nano_pulse_auth.libraries.SigningKeyStore;
+import com.thutasann.nano_pulse_auth.libraries.TokenDigest;
+import com.thutasann.nano_pulse_auth.libraries.TokenEpochCache;
+import com.thutasann.nano_pulse_auth.libraries.TokenLastUsedTracker;
+import com.thutasann.nano_pulse_auth.libraries.TokenStatusCache;
+import com.thutasann.nano_pulse_auth.repositories.TokenRepository;
+import com.thutasann.nano_pulse_auth.repositories.UserRepository;
+import com.thutasann.nano_pulse_auth.services.TokenRefreshService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+/**
+ * JWT Authentication Filter Benchmark
+ *
+ * Full pass through {@link JwtAuthenticationFilter} for an authenticated
+ * request, with the real caches in front of mocked repositories, so the
+ * numbers cover verification, cache lookups and security context setup but
+ * not Mongo. {@code stateful} loads user details and token status per
+ * request; {@code stateless} trusts the signed claims.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({ "stateful", "stateless" })
+    public String mode;
+
+    private JwtAuthenticationFilter filter;
+    private String token;
+    private String tamperedToken;
+
+    @Setup
+    public void setup() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "signingKeyStore", SigningKeyStore.generate());
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", TimeUnit.DAYS.toMillis(7));
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheMaxSize", 10_000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        User user = User.builder()
+                .id("65f0c0ffee0000000000beef")
+                .email("bench@nanopulse.dev")
+                .role(Role.USER)
+                .tokenEpoch(1)
+                .build();
+        token = jwtService.generateToken(user);
+        tamperedToken = token.substring(0, token.length() - 4) + "AAAA";
+        AuthUserDetails userDetails = AuthUserDetails.from(user);
+
+        TokenRepository tokenRepository = mock(TokenRepository.class);
+        when(tokenRepository.findByTokenHash(anyString()))
+                .thenReturn(Optional.of(Token.builder().tokenHash(TokenDigest.of(token)).userId(user.getId()).build()));
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findTokenEpochById(anyString())).thenReturn(Optional.of(user));
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+        filter = new JwtAuthenticationFilter(
+                jwtService,
+                username -> userDetails,
+                new TokenStatusCache(tokenRepository, meterRegistry, 10_000, Duration.ofSeconds(60),
+                        Duration.ofSeconds(10), Duration.ofHours(1)),
+                new TokenLastUsedTracker(mongoTemplate, meterRegistry, 50_000),
+                new RevokedJtiFilter(mongoTemplate, tokenRepository, meterRegistry, "stateless".equals(mode),
+                        100_000, 0.01),
+                new TokenEpochCache(userRepository, meterRegistry, 10_000, Duration.ofSeconds(60)),
+                mock(TokenRefreshService.class),
+                new InvalidTokenGuard(meterRegistry, false, Duration.ofMinutes(1), 20, 100_000),
+                new ClientIpResolver(List.of()),
+                meterRegistry,
+                "stateless".equals(mode),
+                false,
+                5);
+    }
+
+    @Benchmark
+    public int authenticatedRequest(Blackhole blackhole) throws ServletException, IOException {
+        return filter(token, blackhole);
+    }
+
+    @Benchmark
+    public int invalidToken(Blackhole blackhole) throws ServletException, IOException {
+        return filter(tamperedToken, blackhole);
+    }
+
+    private int filter(String jwt, Blackhole blackhole) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.setServletPath("/api/v1/users/me");
+        request.addHeader("Authorization", "Bearer " + jwt);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        try {
+            filter.doFilter(request, response, chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response.getStatus();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,114 @@
+package com.thutasann.nano_pulse_auth.benchmarks;
+
+import java.security.Key;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.thutasann.nano_pulse_auth.dto.jwt.VerifiedClaims;
+import com.thutasann.nano_pulse_auth.entities.User;
+import com.thutasann.nano_pulse_auth.enums.Role;
+import com.thutasann.nano_pulse_auth.libraries.JwtService;
+import com.thutasann.nano_pulse_auth.libraries.SigningKeyStore;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * JWT Verification Benchmark
+ *
+ * Compares the per-request cost of the filter's previous triple-parse path
+ * (fresh key and parser per call) with {@link JwtService#verifyToken}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = Base64.getEncoder()
+            .encodeToString("nano-pulse-benchmark-secret-key-0123456789".getBytes());
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+    private String legacyToken;
+    private Cache<String, VerifiedClaims> verifiedClaimsCache;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "signingKeyStore", SigningKeyStore.generate());
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", TimeUnit.DAYS.toMillis(7));
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheMaxSize", 10_000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        user = User.builder().email("bench@nanopulse.dev").role(Role.USER).build();
+        token = jwtService.generateToken(user);
+        legacyToken = Jwts.builder()
+                .setSubject(user.getEmail())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+        verifiedClaimsCache = (Cache<String, VerifiedClaims>) ReflectionTestUtils.getField(jwtService,
+                "verifiedClaimsCache");
+    }
+
+    /**
+     * Previous filter behaviour: extractUsername, then isTokenValid which parses
+     * twice more, each parse decoding the secret and building a new parser
+     * (HS256, as tokens were signed then).
+     */
+    @Benchmark
+    public boolean legacyTripleParse() {
+        String username = legacyParse(legacyToken).getSubject();
+        return legacyParse(legacyToken).getSubject().equals(username)
+                && !legacyParse(legacyToken).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public VerifiedClaims verifyTokenUncached() {
+        verifiedClaimsCache.invalidate(token);
+        return jwtService.verifyToken(token);
+    }
+
+    @Benchmark
+    public VerifiedClaims verifyTokenCached() {
+        return jwtService.verifyToken(token);
+    }
+
+    private Claims legacyParse(String jwt) {
+        Key key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(jwt).getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
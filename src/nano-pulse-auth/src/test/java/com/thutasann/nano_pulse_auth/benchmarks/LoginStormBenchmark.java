@@ -0,0 +1,119 @@
+package com.thutasann.nano_pulse_auth.benchmarks;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.thutasann.nano_pulse_auth.entities.User;
+import com.thutasann.nano_pulse_auth.enums.Role;
+import com.thutasann.nano_pulse_auth.exceptions.ServiceBusyException;
+import com.thutasann.nano_pulse_auth.libraries.JwtService;
+import com.thutasann.nano_pulse_auth.libraries.SigningKeyStore;
+import com.thutasann.nano_pulse_auth.libraries.PasswordHashingExecutor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Login Storm Benchmark
+ *
+ * Load test for admission control: eight threads hammer password verification
+ * while two threads validate tokens. Compare {@code validateToken} latency
+ * percentiles between {@code unbounded} (BCrypt on the calling threads, as
+ * servlet threads did before) and {@code bounded} (BCrypt on
+ * {@link PasswordHashingExecutor}, excess rejected with 503).
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginStormBenchmark {
+
+    private static final String SECRET = Base64.getEncoder()
+            .encodeToString("nano-pulse-benchmark-secret-key-0123456789".getBytes());
+    private static final String PASSWORD = "correct-horse-battery-staple";
+
+    @Param({ "bounded", "unbounded" })
+    public String mode;
+
+    private PasswordEncoder passwordEncoder;
+    private PasswordHashingExecutor passwordHashingExecutor;
+    private JwtService jwtService;
+    private String passwordHash;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        passwordEncoder = new BCryptPasswordEncoder(10);
+        passwordHash = passwordEncoder.encode(PASSWORD);
+        passwordHashingExecutor = new PasswordHashingExecutor(new SimpleMeterRegistry(),
+                Math.max(Runtime.getRuntime().availableProcessors() / 2, 1), 16);
+
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "signingKeyStore", SigningKeyStore.generate());
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", TimeUnit.DAYS.toMillis(7));
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheMaxSize", 10_000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        token = jwtService.generateToken(User.builder().email("bench@nanopulse.dev").role(Role.USER).build());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordHashingExecutor.shutdown();
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(8)
+    public boolean login() {
+        if ("unbounded".equals(mode)) {
+            return passwordEncoder.matches(PASSWORD, passwordHash);
+        }
+        try {
+            return passwordHashingExecutor.submit(() -> passwordEncoder.matches(PASSWORD, passwordHash)).join();
+        } catch (ServiceBusyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Full signature verification on every call, bypassing the claims cache, so
+     * each call pays for ES256 verification and competes for CPU with the storm.
+     */
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(2)
+    public String validateToken() {
+        return jwtService.extractUsername(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoginStormBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,149 @@
+package com.thutasann.nano_pulse_auth.controllers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.thutasann.nano_pulse_auth.config.SecurityConfig;
+import com.thutasann.nano_pulse_auth.dto.auth.AuthUserDetails;
+import com.thutasann.nano_pulse_auth.dto.jwt.VerifiedClaims;
+import com.thutasann.nano_pulse_auth.enums.Role;
+import com.thutasann.nano_pulse_auth.enums.TokenStatus;
+import com.thutasann.nano_pulse_auth.libraries.ClientIpResolver;
+import com.thutasann.nano_pulse_auth.libraries.InvalidTokenGuard;
+import com.thutasann.nano_pulse_auth.libraries.JwtService;
+import com.thutasann.nano_pulse_auth.libraries.RevokedJtiFilter;
+import com.thutasann.nano_pulse_auth.libraries.TokenEpochCache;
+import com.thutasann.nano_pulse_auth.libraries.TokenLastUsedTracker;
+import com.thutasann.nano_pulse_auth.libraries.TokenStatusCache;
+import com.thutasann.nano_pulse_auth.services.TokenIntrospectionService;
+import com.thutasann.nano_pulse_auth.services.TokenRefreshService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@WebMvcTest(TokenIntrospectionController.class)
+@Import({ SecurityConfig.class, TokenIntrospectionControllerTests.TestConfig.class })
+@TestPropertySource(properties = "api.prefix=/api/v1")
+class TokenIntrospectionControllerTests {
+
+    private static final String BODY = "{\"tokens\":[\"some-token\"]}";
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private TokenIntrospectionService tokenIntrospectionService;
+    @MockitoBean
+    private JwtService jwtService;
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+    @MockitoBean
+    private TokenStatusCache tokenStatusCache;
+    @MockitoBean
+    private TokenLastUsedTracker tokenLastUsedTracker;
+    @MockitoBean
+    private RevokedJtiFilter revokedJtiFilter;
+    @MockitoBean
+    private TokenEpochCache tokenEpochCache;
+    @MockitoBean
+    private TokenRefreshService tokenRefreshService;
+    @MockitoBean
+    private InvalidTokenGuard invalidTokenGuard;
+    @MockitoBean
+    private ClientIpResolver clientIpResolver;
+
+    @BeforeEach
+    void setUp() {
+        when(tokenIntrospectionService.introspect(any())).thenReturn(List.of());
+        when(tokenIntrospectionService.cacheableFor(any(), any())).thenReturn(Duration.ZERO);
+        when(tokenStatusCache.getStatusByHash(anyString())).thenReturn(TokenStatus.VALID);
+        when(tokenEpochCache.isCurrent(anyString(), any())).thenReturn(true);
+    }
+
+    @Test
+    void rejectsAnonymousCallers() throws Exception {
+        mockMvc.perform(post("/api/v1/introspect").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void rejectsUserTokens() throws Exception {
+        signedInAs("user-token", Role.USER);
+
+        mockMvc.perform(post("/api/v1/introspect").contentType(MediaType.APPLICATION_JSON).content(BODY)
+                .header("Authorization", "Bearer user-token"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void acceptsServiceTokens() throws Exception {
+        signedInAs("service-token", Role.SERVICE);
+
+        mockMvc.perform(post("/api/v1/introspect").contentType(MediaType.APPLICATION_JSON).content(BODY)
+                .header("Authorization", "Bearer service-token"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void isNotServedUnderThePublicAuthPrefix() throws Exception {
+        mockMvc.perform(post("/api/v1/auth/introspect").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void keepsMetricsFromAnonymousAndUserCallers() throws Exception {
+        signedInAs("user-token", Role.USER);
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer user-token"))
+                .andExpect(status().isForbidden());
+    }
+
+    private void signedInAs(String token, Role role) {
+        String email = role.name().toLowerCase() + "@example.com";
+        when(jwtService.verifyToken(token)).thenReturn(VerifiedClaims.builder()
+                .id(token)
+                .subject(email)
+                .expiresAt(Instant.now().plusSeconds(600))
+                .claims(Map.of())
+                .build());
+        when(userDetailsService.loadUserByUsername(email)).thenReturn(AuthUserDetails.builder()
+                .id(role.name())
+                .email(email)
+                .role(role)
+                .enabled(true)
+                .accountNonLocked(true)
+                .build());
+    }
+}
@@ -0,0 +1,40 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class ClientIpResolverTests {
+
+    private final ClientIpResolver resolver = new ClientIpResolver(List.of("10.0.0.0/8"));
+
+    @Test
+    void resolvesClientsBehindTrustedProxies() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.1.2.3");
+        request.addHeader("X-Forwarded-For", "198.51.100.1, 203.0.113.7, 10.4.5.6");
+
+        assertThat(resolver.resolve(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void ignoresForwardedHeadersFromUntrustedPeers() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("203.0.113.7");
+        request.addHeader("X-Forwarded-For", "198.51.100.1");
+
+        assertThat(resolver.resolve(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void usesTheRemoteAddressWithoutTrustedProxies() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.1.2.3");
+        request.addHeader("X-Forwarded-For", "203.0.113.7");
+
+        assertThat(new ClientIpResolver(List.of()).resolve(request)).isEqualTo("10.1.2.3");
+    }
+}
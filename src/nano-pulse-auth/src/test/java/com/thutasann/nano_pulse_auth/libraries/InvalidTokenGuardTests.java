@@ -0,0 +1,44 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class InvalidTokenGuardTests {
+
+    private final InvalidTokenGuard guard = new InvalidTokenGuard(new SimpleMeterRegistry(), true,
+            Duration.ofHours(1), 100, 1000);
+
+    @Test
+    void blocksOnceTheLimitIsReachedUnderConcurrentRejections() {
+        CompletableFuture.allOf(IntStream.range(0, 8)
+                .mapToObj(thread -> CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 12; i++) {
+                        guard.recordRejection("203.0.113.7");
+                    }
+                }))
+                .toArray(CompletableFuture[]::new)).join();
+
+        assertThat(guard.isBlocked("203.0.113.7")).isFalse();
+        for (int i = 0; i < 4; i++) {
+            guard.recordRejection("203.0.113.7");
+        }
+        assertThat(guard.isBlocked("203.0.113.7")).isTrue();
+        assertThat(guard.isBlocked("203.0.113.8")).isFalse();
+    }
+
+    @Test
+    void isOffWithoutALimit() {
+        InvalidTokenGuard unconfigured = new InvalidTokenGuard(new SimpleMeterRegistry(), true,
+                Duration.ofMinutes(1), 0, 1000);
+        unconfigured.recordRejection("203.0.113.7");
+
+        assertThat(unconfigured.isBlocked("203.0.113.7")).isFalse();
+    }
+}
@@ -0,0 +1,42 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.thutasann.nano_pulse_auth.exceptions.LoginThrottledException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginThrottleTests {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LoginThrottle throttle = new LoginThrottle(meterRegistry, true, Duration.ofMinutes(1), 5, 3, 1000);
+
+    @Test
+    void throttlesOneIpSprayingManyEmails() {
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire("10.0.0.1", "user" + i + "@nanopulse.dev");
+        }
+
+        assertThatThrownBy(() -> throttle.acquire("10.0.0.1", "other@nanopulse.dev"))
+                .isInstanceOf(LoginThrottledException.class);
+        assertThat(meterRegistry.get("auth.login.throttled").tag("key", "ip").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void throttlesManyIpsTargetingOneEmail() {
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("10.0.1." + i, "Victim@nanopulse.dev");
+        }
+
+        assertThatThrownBy(() -> throttle.acquire("10.0.2.1", "victim@nanopulse.dev"))
+                .isInstanceOf(LoginThrottledException.class)
+                .satisfies(e -> assertThat(((LoginThrottledException) e).getRetryAfterSeconds()).isPositive());
+        assertThat(meterRegistry.get("auth.login.throttled").tag("key", "email").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,95 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.thutasann.nano_pulse_auth.entities.Token;
+import com.thutasann.nano_pulse_auth.enums.TokenType;
+import com.thutasann.nano_pulse_auth.repositories.TokenRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RevokedJtiFilterTests {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final TokenRepository tokenRepository = mock(TokenRepository.class);
+    private final Set<String> revoked = new HashSet<>();
+    private RevokedJtiFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RevokedJtiFilter(mongoTemplate, tokenRepository, new SimpleMeterRegistry(), true, 1_000, 0.01);
+        when(tokenRepository.findByJti(anyString())).thenAnswer(invocation -> {
+            String jti = invocation.getArgument(0);
+            return revoked.contains(jti)
+                    ? Optional.of(Token.builder().jti(jti).revoked(true).build())
+                    : Optional.empty();
+        });
+    }
+
+    @Test
+    void reportsEveryRevokedJtiAfterRebuild() {
+        // ten times the sized capacity, so the filter is saturated with false positives
+        List<String> jtis = IntStream.range(0, 10_000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+        revoked.addAll(jtis);
+        when(mongoTemplate.stream(any(Query.class), eq(Token.class)))
+                .thenReturn(jtis.stream().map(jti -> Token.builder().jti(jti).revoked(true).build()));
+
+        filter.rebuild();
+
+        assertThat(jtis).allMatch(filter::isRevoked);
+        assertThat(filter.isRevoked(UUID.randomUUID().toString())).isFalse();
+    }
+
+    @Test
+    void keepsRevocationsBroadcastWhileRebuilding() {
+        String early = UUID.randomUUID().toString();
+        String late = UUID.randomUUID().toString();
+        revoked.addAll(List.of(early, late));
+        filter.add(early);
+        when(mongoTemplate.stream(any(Query.class), eq(Token.class))).thenReturn(Stream.of("a", "b")
+                .map(jti -> {
+                    filter.add(late);
+                    return Token.builder().jti(jti).revoked(true).build();
+                }));
+
+        filter.rebuild();
+
+        assertThat(filter.isRevoked(late)).isTrue();
+        // not in the snapshot: dropped by the rebuild like any expired revocation
+        assertThat(filter.isRevoked(early)).isFalse();
+    }
+
+    @Test
+    void rebuildsFromRevokedAccessTokensOnly() {
+        when(mongoTemplate.stream(any(Query.class), eq(Token.class))).thenReturn(Stream.empty());
+
+        filter.rebuild();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(Token.class));
+        Document criteria = query.getValue().getQueryObject();
+        assertThat(criteria.get("revoked")).isEqualTo(true);
+        assertThat(criteria.get("tokenType")).isEqualTo(new Document("$ne", TokenType.REFRESH));
+    }
+}
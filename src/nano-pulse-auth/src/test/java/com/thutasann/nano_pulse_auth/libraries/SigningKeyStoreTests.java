@@ -0,0 +1,25 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+class SigningKeyStoreTests {
+
+    @Test
+    void refusesToStartWithoutAKeystore() {
+        assertThatThrownBy(() -> new SigningKeyStore(new DefaultResourceLoader(), "", "", "", false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("jwt.signing.keystore");
+    }
+
+    @Test
+    void signsWithAThrowawayKeyOnlyWhenAskedTo() throws Exception {
+        SigningKeyStore keys = new SigningKeyStore(new DefaultResourceLoader(), "", "", "", true);
+
+        assertThat(keys.getActivePrivateKey()).isNotNull();
+        assertThat(keys.getVerificationKey(keys.getActiveKid())).isNotNull();
+    }
+}
@@ -0,0 +1,149 @@
+package com.thutasann.nano_pulse_auth.libraries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thutasann.nano_pulse_auth.config.KafkaConfig;
+import com.thutasann.nano_pulse_auth.dto.jwt.VerifiedClaims;
+import com.thutasann.nano_pulse_auth.dto.kafka.TokenRevocationEvent;
+import com.thutasann.nano_pulse_auth.entities.Token;
+import com.thutasann.nano_pulse_auth.entities.User;
+import com.thutasann.nano_pulse_auth.enums.TokenStatus;
+import com.thutasann.nano_pulse_auth.repositories.TokenRepository;
+import com.thutasann.nano_pulse_auth.repositories.UserRepository;
+import com.thutasann.nano_pulse_auth.services.kafka.KafkaProducerService;
+import com.thutasann.nano_pulse_auth.services.kafka.TokenRevocationListener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(classes = TokenStatusCacheKafkaTests.TestConfig.class)
+@EmbeddedKafka(partitions = 1, topics = { "user-auth", "token-revocations" })
+@TestPropertySource(properties = {
+        "kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "kafka.topic.user-auth=user-auth"
+})
+class TokenStatusCacheKafkaTests {
+
+    @Configuration
+    @Import({ KafkaConfig.class, TokenStatusCache.class, RevokedJtiFilter.class, TokenEpochCache.class,
+            TokenRevocationListener.class, KafkaProducerService.class })
+    static class TestConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @MockitoBean
+    private TokenRepository tokenRepository;
+
+    @MockitoBean
+    private MongoTemplate mongoTemplate;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenStatusCache tokenStatusCache;
+
+    @Autowired
+    private TokenEpochCache tokenEpochCache;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void revocationFromAnotherNodeInvalidatesCachedValidToken() {
+        Token token = Token.builder().tokenHash(TokenDigest.of("jwt-1")).userId("user-1").build();
+        when(tokenRepository.findByTokenHash(TokenDigest.of("jwt-1"))).thenReturn(Optional.of(token));
+
+        assertThat(tokenStatusCache.getStatus("jwt-1")).isEqualTo(TokenStatus.VALID);
+        assertThat(tokenStatusCache.getStatus("jwt-1")).isEqualTo(TokenStatus.VALID);
+
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(container, embeddedKafka.getPartitionsPerTopic());
+        }
+
+        kafkaProducerService.sendTokenRevocationEvent(TokenRevocationEvent.builder()
+                .userId("user-1")
+                .revokedAt(System.currentTimeMillis())
+                .build());
+
+        await().atMost(Duration.ofSeconds(10))
+                .untilAsserted(() -> assertThat(tokenStatusCache.getStatus("jwt-1")).isEqualTo(TokenStatus.REVOKED));
+        assertThat(meterRegistry.get("auth.token.revocation.propagation.lag").timer().count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void revokeAllFromAnotherNodeRejectsTokensFromOlderEpoch() {
+        when(userRepository.findTokenEpochById("user-2"))
+                .thenReturn(Optional.of(User.builder().id("user-2").tokenEpoch(3).build()));
+        VerifiedClaims claims = VerifiedClaims.builder()
+                .subject("user-2@nanopulse.dev")
+                .claims(Map.of(JwtService.CLAIM_EPOCH, 3))
+                .build();
+
+        assertThat(tokenEpochCache.isCurrent("user-2", claims)).isTrue();
+
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(container, embeddedKafka.getPartitionsPerTopic());
+        }
+
+        kafkaProducerService.sendTokenRevocationEvent(TokenRevocationEvent.builder()
+                .userId("user-2")
+                .epoch(4L)
+                .revokedAt(System.currentTimeMillis())
+                .build());
+
+        await().atMost(Duration.ofSeconds(10))
+                .untilAsserted(() -> assertThat(tokenEpochCache.isCurrent("user-2", claims)).isFalse());
+    }
+
+    @Test
+    void unknownTokenIsNegativelyCached() {
+        when(tokenRepository.findByTokenHash(TokenDigest.of("jwt-missing"))).thenReturn(Optional.empty());
+
+        assertThat(tokenStatusCache.getStatus("jwt-missing")).isEqualTo(TokenStatus.UNKNOWN);
+        assertThat(tokenStatusCache.getStatus("jwt-missing")).isEqualTo(TokenStatus.UNKNOWN);
+
+        verify(tokenRepository, times(1)).findByTokenHash(TokenDigest.of("jwt-missing"));
+    }
+}
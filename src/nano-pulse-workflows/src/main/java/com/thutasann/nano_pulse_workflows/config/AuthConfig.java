@@ -0,0 +1,69 @@
+package com.thutasann.nano_pulse_workflows.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thutasann.nano_pulse_workflows.libraries.AuthenticatedUser;
+import com.thutasann.nano_pulse_workflows.libraries.JwksTokenVerifier;
+
+/**
+ * Auth Config
+ *
+ * Verifies access tokens locally with keys from the auth service's JWKS
+ * endpoint and resolves {@link AuthenticatedUser} controller parameters.
+ */
+@Configuration
+public class AuthConfig implements WebMvcConfigurer {
+
+    private final JwksTokenVerifier jwksTokenVerifier;
+
+    public AuthConfig(
+            ObjectMapper objectMapper,
+            @Value("${auth.jwks-uri:http://localhost:8989/api/v1/auth/jwks.json}") String jwksUri,
+            @Value("${auth.jwks.refresh-interval:5m}") Duration refreshInterval,
+            @Value("${auth.jwks.min-refresh-interval:30s}") Duration minRefreshInterval) {
+        this.jwksTokenVerifier = new JwksTokenVerifier(URI.create(jwksUri), objectMapper, refreshInterval,
+                minRefreshInterval);
+    }
+
+    @Bean
+    public JwksTokenVerifier jwksTokenVerifier() {
+        return jwksTokenVerifier;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prefetchKeys() {
+        jwksTokenVerifier.refresh();
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new HandlerMethodArgumentResolver() {
+            @Override
+            public boolean supportsParameter(MethodParameter parameter) {
+                return AuthenticatedUser.class.equals(parameter.getParameterType());
+            }
+
+            @Override
+            public AuthenticatedUser resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                    NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+                return jwksTokenVerifier.verify(webRequest.getHeader(HttpHeaders.AUTHORIZATION));
+            }
+        });
+    }
+}
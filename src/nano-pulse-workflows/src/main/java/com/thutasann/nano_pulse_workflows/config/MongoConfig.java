@@ -7,6 +7,8 @@ import com.mongodb.client.MongoClients;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
 import org.springframework.data.mongodb.config.AbstractMongoClientConfiguration;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.mapping.event.ValidatingMongoEventListener;
@@ -46,8 +48,22 @@ public class MongoConfig extends AbstractMongoClientConfiguration {
         return MongoClients.create(settings);
     }
 
+    /**
+     * Built on the shared database factory so that it joins transactions
+     * started by {@link #transactionManager}.
+     */
     @Bean
     public MongoTemplate mongoTemplate() {
-        return new MongoTemplate(mongoClient(), getDatabaseName());
+        return new MongoTemplate(mongoDbFactory());
+    }
+
+    /**
+     * Multi-document transactions (template update with its version insert)
+     * require a replica set or sharded cluster; on a standalone server the
+     * template service writes without one.
+     */
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory mongoDatabaseFactory) {
+        return new MongoTransactionManager(mongoDatabaseFactory);
     }
 }
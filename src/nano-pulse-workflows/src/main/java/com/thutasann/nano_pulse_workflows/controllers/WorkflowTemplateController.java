@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,14 +13,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.thutasann.nano_pulse_workflows.entities.WorkflowTemplate;
 import com.thutasann.nano_pulse_workflows.entities.WorkflowVersion;
+import com.thutasann.nano_pulse_workflows.entities.WorkflowVersionActivation;
 import com.thutasann.nano_pulse_workflows.interfaces.WorkflowTemplateService;
+import com.thutasann.nano_pulse_workflows.libraries.AuthenticatedUser;
+import com.thutasann.nano_pulse_workflows.libraries.TemplateListCursor;
 import com.thutasann.nano_pulse_workflows.requests.WorkflowTemplateRequest;
 import com.thutasann.nano_pulse_workflows.response.ApiResponse;
 
@@ -34,10 +38,10 @@ public class WorkflowTemplateController {
     @PostMapping
     public ResponseEntity<ApiResponse<WorkflowTemplate>> createWorkflowTemplate(
             @Valid @RequestBody WorkflowTemplateRequest request,
-            @RequestHeader("Authorization") String jwt) {
+            AuthenticatedUser user) {
 
         WorkflowTemplate template = request.toWorkflowTemplate();
-        String userId = "";
+        String userId = user.getUserId();
 
         WorkflowTemplate createdTemplate = workflowTemplateService.createWorkflowTemplate(template, userId);
 
@@ -50,8 +54,8 @@ public class WorkflowTemplateController {
 
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<WorkflowTemplate>> getWorkflowTemplateById(
-            @RequestHeader("Authorization") String jwt,
-            String id) {
+            AuthenticatedUser user,
+            @PathVariable String id) {
         return workflowTemplateService.getWorkflowTemplateById(id)
                 .map(template -> ResponseEntity.ok(new ApiResponse<>(
                         true,
@@ -60,14 +64,21 @@ public class WorkflowTemplateController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Template summaries for a tenant, most recently updated first. Pass the
+     * returned {@code nextCursor} back to fetch the following page.
+     */
     @GetMapping("/tenant/{tenantId}")
-    public ResponseEntity<ApiResponse<List<WorkflowTemplate>>> getWorkflowTemplatesByTenant(
-            @PathVariable String tenantId) {
-        List<WorkflowTemplate> templates = workflowTemplateService.getWorkflowTemplatesByTenantId(tenantId);
-        return ResponseEntity.ok(new ApiResponse<>(
-                true,
-                "Workflow templates retrieved successfully",
-                templates));
+    public ResponseEntity<StreamingResponseBody> getWorkflowTemplatesByTenant(
+            @PathVariable String tenantId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        TemplateListCursor position = TemplateListCursor.decode(cursor);
+        StreamingResponseBody body = output -> workflowTemplateService.writeWorkflowTemplateSummaries(
+                tenantId, position, limit, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     @PutMapping("/{id}")
@@ -75,10 +86,10 @@ public class WorkflowTemplateController {
             @PathVariable String id,
             @Valid @RequestBody WorkflowTemplateRequest request,
             @RequestParam String changeDescription,
-            @RequestHeader("Authorization") String jwt) {
+            AuthenticatedUser user) {
 
         WorkflowTemplate template = request.toWorkflowTemplate();
-        String userId = "";
+        String userId = user.getUserId();
 
         WorkflowVersion updatedVersion = workflowTemplateService.updateWorkflowTemplate(
                 id, template, userId, changeDescription);
@@ -89,6 +100,57 @@ public class WorkflowTemplateController {
                 updatedVersion));
     }
 
+    /**
+     * The definition executions run: the version the template was last rolled
+     * back to, or the latest one if it was never rolled back.
+     */
+    @GetMapping("/{id}/versions/active")
+    public ResponseEntity<ApiResponse<WorkflowTemplate>> getActiveWorkflowTemplate(@PathVariable String id) {
+        return workflowTemplateService.getActiveWorkflowTemplate(id)
+                .map(template -> ResponseEntity.ok(new ApiResponse<>(
+                        true,
+                        "Active workflow template retrieved successfully",
+                        template)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/versions/{versionNumber}")
+    public ResponseEntity<ApiResponse<WorkflowVersion>> getWorkflowTemplateVersion(
+            @PathVariable String id,
+            @PathVariable int versionNumber) {
+        return workflowTemplateService.getWorkflowTemplateVersion(id, versionNumber)
+                .map(version -> ResponseEntity.ok(new ApiResponse<>(
+                        true,
+                        "Workflow template version retrieved successfully",
+                        version)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/rollback")
+    public ResponseEntity<ApiResponse<WorkflowVersionActivation>> rollbackWorkflowTemplate(
+            @PathVariable String id,
+            @RequestParam int versionNumber,
+            @RequestParam(required = false) String reason,
+            AuthenticatedUser user) {
+
+        WorkflowVersionActivation activation = workflowTemplateService.rollbackWorkflowTemplate(
+                id, versionNumber, user.getUserId(), reason);
+
+        return ResponseEntity.ok(new ApiResponse<>(
+                true,
+                "Workflow template rolled back to version " + versionNumber,
+                activation));
+    }
+
+    @GetMapping("/{id}/activations")
+    public ResponseEntity<ApiResponse<List<WorkflowVersionActivation>>> getWorkflowTemplateActivations(
+            @PathVariable String id) {
+        return ResponseEntity.ok(new ApiResponse<>(
+                true,
+                "Workflow template activations retrieved successfully",
+                workflowTemplateService.getWorkflowTemplateActivations(id)));
+    }
+
     @PatchMapping("/{id}/active")
     public ResponseEntity<ApiResponse<WorkflowTemplate>> setWorkflowTemplateActive(
             @PathVariable String id,
@@ -118,9 +180,9 @@ public class WorkflowTemplateController {
     public ResponseEntity<ApiResponse<WorkflowTemplate>> cloneWorkflowTemplate(
             @PathVariable String id,
             @RequestParam String newName,
-            @RequestHeader("Authorization") String jwt) {
+            AuthenticatedUser user) {
 
-        String userId = "";
+        String userId = user.getUserId();
         WorkflowTemplate clonedTemplate = workflowTemplateService.cloneWorkflowTemplate(id, newName, userId);
 
         return ResponseEntity.status(HttpStatus.CREATED)
@@ -156,9 +218,9 @@ public class WorkflowTemplateController {
     public ResponseEntity<ApiResponse<WorkflowTemplate>> importWorkflowTemplate(
             @RequestBody String templateJson,
             @RequestParam String tenantId,
-            @RequestHeader("Authorization") String jwt) {
+            AuthenticatedUser user) {
 
-        String userId = "";
+        String userId = user.getUserId();
         WorkflowTemplate importedTemplate = workflowTemplateService.importWorkflowTemplate(
                 templateJson, userId, tenantId);
 
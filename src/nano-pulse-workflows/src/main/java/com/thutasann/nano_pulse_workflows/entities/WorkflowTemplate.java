@@ -28,6 +28,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Document(collection = "workflow_templates")
 @CompoundIndex(name = "tenant_name_idx", def = "{'tenantId': 1, 'name': 1}", unique = true)
+@CompoundIndex(name = "tenant_updated_idx", def = "{'tenantId': 1, 'updatedAt': -1, '_id': -1}")
 public class WorkflowTemplate {
     @Id
     private String id;
@@ -70,6 +71,18 @@ public class WorkflowTemplate {
     @Version
     private Long version;
 
+    /**
+     * Highest version number allocated in {@code workflow_versions}, advanced
+     * atomically with {@code $inc} on every update
+     */
+    private Integer latestVersionNumber;
+
+    /**
+     * Version pinned by a rollback. Null means the latest version is active;
+     * every update clears it
+     */
+    private Integer activeVersionNumber;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
@@ -32,8 +32,21 @@ public class WorkflowVersion {
 
     private String changeDescription;
 
+    /**
+     * Full template, stored on snapshot versions only
+     */
     private WorkflowTemplate workflowData;
 
+    /**
+     * JSON Patch from the previous version, stored on versions between
+     * snapshots instead of {@code workflowData}
+     */
+    private String delta;
+
+    /**
+     * Derived from the template's active version pointer when a version is
+     * read; stored values on older versions are not maintained
+     */
     private boolean isActive;
 
     @CreatedDate
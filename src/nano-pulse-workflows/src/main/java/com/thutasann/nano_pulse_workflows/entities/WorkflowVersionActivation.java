@@ -0,0 +1,38 @@
+package com.thutasann.nano_pulse_workflows.entities;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Audit entry for a change of a template's active version pointer
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "workflow_version_activations")
+@CompoundIndex(name = "template_activated_idx", def = "{'templateId': 1, 'activatedAt': -1}")
+public class WorkflowVersionActivation {
+    @Id
+    private String id;
+
+    private String templateId;
+
+    private Integer fromVersionNumber;
+
+    private Integer toVersionNumber;
+
+    private String activatedBy;
+
+    private String reason;
+
+    private LocalDateTime activatedAt;
+}
@@ -0,0 +1,10 @@
+package com.thutasann.nano_pulse_workflows.exceptions;
+
+/**
+ * Unauthorized Exception
+ */
+public class UnauthorizedException extends RuntimeException {
+    public UnauthorizedException(String message) {
+        super(message);
+    }
+}
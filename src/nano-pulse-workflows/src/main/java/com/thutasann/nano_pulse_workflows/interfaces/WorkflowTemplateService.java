@@ -1,10 +1,14 @@
 package com.thutasann.nano_pulse_workflows.interfaces;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
 import com.thutasann.nano_pulse_workflows.entities.WorkflowTemplate;
 import com.thutasann.nano_pulse_workflows.entities.WorkflowVersion;
+import com.thutasann.nano_pulse_workflows.entities.WorkflowVersionActivation;
+import com.thutasann.nano_pulse_workflows.libraries.TemplateListCursor;
 
 /**
  * Service for managing workflow templates
@@ -28,12 +32,16 @@ public interface WorkflowTemplateService {
     Optional<WorkflowTemplate> getWorkflowTemplateById(String id);
 
     /**
-     * Get all workflow templates by Tenant Id
+     * Write one page of a tenant's template summaries, most recently updated
+     * first, as an {@code ApiResponse} JSON body
      *
-     * @param tenantId The tenant id of the templates to get
-     * @return
+     * @param tenantId The tenant id of the templates to list
+     * @param cursor   Position to continue after, or null for the first page
+     * @param limit    Maximum number of summaries in the page
+     * @param output   Stream the page is written to
      */
-    List<WorkflowTemplate> getWorkflowTemplatesByTenantId(String tenantId);
+    void writeWorkflowTemplateSummaries(String tenantId, TemplateListCursor cursor, int limit, OutputStream output)
+            throws IOException;
 
     /**
      * Update a workflow template
@@ -47,6 +55,42 @@ public interface WorkflowTemplateService {
     WorkflowVersion updateWorkflowTemplate(String id, WorkflowTemplate workflowTemplate, String userId,
             String changeDescription);
 
+    /**
+     * Get a version of a workflow template
+     *
+     * @param id            The id of the template
+     * @param versionNumber The version number to get
+     * @return The version with its full template, if it exists
+     */
+    Optional<WorkflowVersion> getWorkflowTemplateVersion(String id, int versionNumber);
+
+    /**
+     * Get the workflow template as of its active version, for executions
+     *
+     * @param id The id of the template
+     * @return The active definition if the template exists
+     */
+    Optional<WorkflowTemplate> getActiveWorkflowTemplate(String id);
+
+    /**
+     * Roll a workflow template back (or forward) to one of its versions
+     *
+     * @param id            The id of the template
+     * @param versionNumber The version to make active
+     * @param userId        The user id of the user who rolled back the template
+     * @param reason        Why the version was activated
+     * @return The audit entry for the change
+     */
+    WorkflowVersionActivation rollbackWorkflowTemplate(String id, int versionNumber, String userId, String reason);
+
+    /**
+     * Get the active version changes of a workflow template, newest first
+     *
+     * @param id The id of the template
+     * @return The audit entries
+     */
+    List<WorkflowVersionActivation> getWorkflowTemplateActivations(String id);
+
     /**
      * Activate or Deactivate a workflow template
      * 
@@ -0,0 +1,18 @@
+package com.thutasann.nano_pulse_workflows.libraries;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Authenticated User
+ *
+ * Caller identity taken from a verified access token. Declare it as a
+ * controller method parameter to require authentication.
+ */
+@Value
+@Builder
+public class AuthenticatedUser {
+    String userId;
+    String email;
+    String role;
+}
@@ -0,0 +1,185 @@
+package com.thutasann.nano_pulse_workflows.libraries;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.AlgorithmParameters;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thutasann.nano_pulse_workflows.exceptions.UnauthorizedException;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * JWKS Token Verifier
+ *
+ * Verifies access tokens issued by nano-pulse-auth locally, against the ES256
+ * public keys it publishes at its JWKS endpoint. Keys are cached by
+ * {@code kid} and refreshed in the background once older than the refresh
+ * interval; a token signed with an unknown {@code kid} (a rotated-in key)
+ * triggers an immediate refresh, at most once per minimum interval. If the
+ * auth service is unreachable the cached keys keep working.
+ *
+ * Depends only on the JDK, Jackson and jjwt, so it can be copied into other
+ * services as is.
+ */
+@Slf4j
+public class JwksTokenVerifier {
+
+    private static final String CLAIM_USER_ID = "userId";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_TOKEN_TYPE = "tokenType";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final URI jwksUri;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final long refreshIntervalNanos;
+    private final long minRefreshIntervalNanos;
+    private final JwtParser parser;
+    private final AtomicBoolean backgroundRefresh = new AtomicBoolean();
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long fetchedAtNanos;
+    private volatile long attemptedAtNanos;
+
+    public JwksTokenVerifier(URI jwksUri, ObjectMapper objectMapper, Duration refreshInterval,
+            Duration minRefreshInterval) {
+        this.jwksUri = jwksUri;
+        this.objectMapper = objectMapper;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(new JwksKeyResolver()).build();
+    }
+
+    /**
+     * @param authorization - {@code Authorization} header value or bare token
+     * @return the caller identity
+     * @throws UnauthorizedException if the token is missing, invalid or expired
+     */
+    public AuthenticatedUser verify(String authorization) {
+        if (authorization == null || authorization.isBlank()) {
+            throw new UnauthorizedException("Missing access token");
+        }
+        String token = authorization.startsWith(BEARER_PREFIX)
+                ? authorization.substring(BEARER_PREFIX.length())
+                : authorization;
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (ExpiredJwtException e) {
+            throw new UnauthorizedException("Token has expired");
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new UnauthorizedException("Invalid token");
+        }
+        if (claims.get(CLAIM_TOKEN_TYPE) != null) {
+            // only access tokens carry no token type
+            throw new UnauthorizedException("Invalid token");
+        }
+
+        return AuthenticatedUser.builder()
+                .userId(claims.get(CLAIM_USER_ID, String.class))
+                .email(claims.getSubject())
+                .role(claims.get(CLAIM_ROLE, String.class))
+                .build();
+    }
+
+    /**
+     * Fetch the key set now, for example at startup. Failures are logged and
+     * leave the current keys in place.
+     */
+    public synchronized void refresh() {
+        attemptedAtNanos = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(
+                    HttpRequest.newBuilder(jwksUri).timeout(Duration.ofSeconds(5)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                log.warn("JWKS fetch from {} returned {}", jwksUri, response.statusCode());
+                return;
+            }
+            keys = parseKeys(objectMapper.readTree(response.body()));
+            fetchedAtNanos = System.nanoTime();
+            log.info("Loaded {} token verification keys from {}", keys.size(), jwksUri);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("JWKS fetch from {} failed, keeping cached keys - Error: {}", jwksUri, e.getMessage());
+        }
+    }
+
+    private PublicKey resolve(String kid) {
+        PublicKey key = keys.get(kid);
+        if (key == null) {
+            synchronized (this) {
+                key = keys.get(kid);
+                if (key == null && System.nanoTime() - attemptedAtNanos >= minRefreshIntervalNanos) {
+                    refresh();
+                    key = keys.get(kid);
+                }
+            }
+        } else if (System.nanoTime() - fetchedAtNanos >= refreshIntervalNanos
+                && backgroundRefresh.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(this::refresh).whenComplete((ignored, e) -> backgroundRefresh.set(false));
+        }
+        return key;
+    }
+
+    private static Map<String, PublicKey> parseKeys(JsonNode jwks) throws Exception {
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        ECParameterSpec p256 = parameters.getParameterSpec(ECParameterSpec.class);
+        KeyFactory keyFactory = KeyFactory.getInstance("EC");
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+
+        Map<String, PublicKey> parsed = new HashMap<>();
+        for (JsonNode jwk : jwks.path("keys")) {
+            if (!"EC".equals(jwk.path("kty").asText()) || !"P-256".equals(jwk.path("crv").asText())) {
+                continue;
+            }
+            ECPoint point = new ECPoint(
+                    new BigInteger(1, decoder.decode(jwk.path("x").asText())),
+                    new BigInteger(1, decoder.decode(jwk.path("y").asText())));
+            parsed.put(jwk.path("kid").asText(), keyFactory.generatePublic(new ECPublicKeySpec(point, p256)));
+        }
+        return Map.copyOf(parsed);
+    }
+
+    private class JwksKeyResolver extends SigningKeyResolverAdapter {
+        @Override
+        public Key resolveSigningKey(@SuppressWarnings("rawtypes") JwsHeader header, Claims claims) {
+            String kid = header.getKeyId();
+            PublicKey key = kid != null ? resolve(kid) : null;
+            if (key == null) {
+                throw new UnsupportedJwtException("Unknown signing key id: " + kid);
+            }
+            return key;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.thutasann.nano_pulse_workflows.libraries;
+
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flipkart.zjsonpatch.DiffFlags;
+import com.flipkart.zjsonpatch.JsonDiff;
+import com.flipkart.zjsonpatch.JsonPatch;
+
+/**
+ * Template Delta
+ *
+ * JSON Patch (RFC 6902) between two JSON trees of a workflow template, kept
+ * as text so it is stored verbatim regardless of the keys inside step
+ * configs and metadata.
+ */
+public final class TemplateDelta {
+
+    private TemplateDelta() {
+    }
+
+    /**
+     * @return patch turning {@code from} into {@code to}
+     */
+    public static String diff(ObjectMapper objectMapper, JsonNode from, JsonNode to) {
+        try {
+            return objectMapper.writeValueAsString(JsonDiff.asJson(from, to, DiffFlags.defaults()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error encoding workflow template delta", e);
+        }
+    }
+
+    /**
+     * @return a new tree with {@code deltas} applied in order; {@code base} is
+     *         copied once and left untouched
+     */
+    public static JsonNode replay(ObjectMapper objectMapper, JsonNode base, List<String> deltas) {
+        JsonNode tree = base.deepCopy();
+        try {
+            for (String delta : deltas) {
+                JsonPatch.applyInPlace(objectMapper.readTree(delta), tree);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error decoding workflow template delta", e);
+        }
+        return tree;
+    }
+}
@@ -0,0 +1,49 @@
+package com.thutasann.nano_pulse_workflows.libraries;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import com.thutasann.nano_pulse_workflows.exceptions.ValidationException;
+
+/**
+ * Template List Cursor
+ *
+ * Keyset position in a tenant's template listing, which is ordered by
+ * {@code updatedAt} then {@code _id}, both descending. Encoded as opaque
+ * base64url text so clients pass it back unchanged.
+ *
+ * @param updatedAt - Stored {@code updatedAt} of the last template returned
+ * @param id        - Id of the last template returned
+ */
+public record TemplateListCursor(Date updatedAt, String id) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        String raw = updatedAt.getTime() + ":" + id;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor - Cursor from a previous page, or null for the first page
+     * @return the decoded position, or null for the first page
+     */
+    public static TemplateListCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new ValidationException("Invalid cursor");
+            }
+            return new TemplateListCursor(new Date(Long.parseLong(raw.substring(0, separator))),
+                    raw.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+}
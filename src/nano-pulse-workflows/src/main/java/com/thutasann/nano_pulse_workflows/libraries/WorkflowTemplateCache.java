@@ -0,0 +1,244 @@
+package com.thutasann.nano_pulse_workflows.libraries;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.thutasann.nano_pulse_workflows.entities.WorkflowTemplate;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Workflow Template Cache
+ *
+ * Read-through cache of templates by id. Templates are read far more often
+ * than they are written, and each one carries its steps, triggers and
+ * metadata, so the cache is bounded by the encoded BSON size of the cached
+ * documents rather than by entry count.
+ *
+ * Entries are versioned by the template's {@code @Version}: writes through
+ * the service replace an entry only with a newer version, and invalidations
+ * drop it only if it is older than the version they carry. Writes from other
+ * nodes arrive through a change stream on {@code workflow_templates}; where
+ * change streams are unavailable (standalone Mongo) entries fall back to
+ * expiring after the configured TTL.
+ *
+ * Cached templates are shared: callers must not modify them.
+ */
+@Component
+@Slf4j
+public class WorkflowTemplateCache {
+
+    private static final String COLLECTION = "workflow_templates";
+    private static final int CHANGE_STREAM_UNSUPPORTED = 40573;
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final MongoTemplate mongoTemplate;
+    private final Cache<String, Entry> cache;
+    private final boolean watchChanges;
+    private final Duration retryDelay;
+
+    private volatile boolean running;
+    private Thread watcher;
+
+    public WorkflowTemplateCache(
+            MongoTemplate mongoTemplate,
+            @Value("${workflows.template-cache.max-weight:64MB}") DataSize maxWeight,
+            @Value("${workflows.template-cache.ttl:10m}") Duration ttl,
+            @Value("${workflows.template-cache.change-stream.enabled:true}") boolean watchChanges,
+            @Value("${workflows.template-cache.change-stream.retry-delay:5s}") Duration retryDelay) {
+        this.mongoTemplate = mongoTemplate;
+        this.watchChanges = watchChanges;
+        this.retryDelay = retryDelay;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight.toBytes())
+                .weigher((String id, Entry entry) -> entry.weight())
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * @param id - Template id
+     * @return the template, loaded from Mongo on a miss
+     */
+    public Optional<WorkflowTemplate> get(String id) {
+        Entry entry = cache.get(id, this::load);
+        return entry != null ? Optional.of(entry.template()) : Optional.empty();
+    }
+
+    /**
+     * Cache a template just written through the service, unless a newer
+     * version is already cached.
+     */
+    public void put(WorkflowTemplate template) {
+        Entry entry = new Entry(template, weigh(toDocument(template)));
+        cache.asMap().merge(template.getId(), entry,
+                (cached, written) -> versionOf(written) >= versionOf(cached) ? written : cached);
+    }
+
+    /**
+     * Drop a template if the cached copy is older than {@code version}.
+     *
+     * @param version - Version that made the entry stale; null drops the entry
+     *                unconditionally
+     */
+    public void invalidate(String id, Long version) {
+        if (version == null) {
+            cache.invalidate(id);
+            return;
+        }
+        cache.asMap().computeIfPresent(id, (key, cached) -> versionOf(cached) >= version ? cached : null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWatching() {
+        if (!watchChanges) {
+            return;
+        }
+        running = true;
+        watcher = new Thread(this::watch, "workflow-template-cache-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @PreDestroy
+    public void stopWatching() throws InterruptedException {
+        running = false;
+        if (watcher != null) {
+            watcher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private Entry load(String id) {
+        Document document = mongoTemplate.findById(id, Document.class, COLLECTION);
+        if (document == null) {
+            return null;
+        }
+        return new Entry(mongoTemplate.getConverter().read(WorkflowTemplate.class, document), weigh(document));
+    }
+
+    /**
+     * Follow the change stream, resuming after the last seen event on
+     * reconnect. If the stream cannot resume, every entry is dropped since
+     * events in the gap are lost.
+     */
+    private void watch() {
+        BsonDocument resumeToken = null;
+        while (running) {
+            ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(COLLECTION)
+                    .watch()
+                    .maxAwaitTime(1, TimeUnit.SECONDS);
+            if (resumeToken != null) {
+                stream = stream.resumeAfter(resumeToken);
+            }
+
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null) {
+                        apply(change);
+                    }
+                    if (cursor.getResumeToken() != null) {
+                        resumeToken = cursor.getResumeToken();
+                    }
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == CHANGE_STREAM_UNSUPPORTED) {
+                    log.warn("Change streams are not supported by this deployment; workflow template cache "
+                            + "entries will only expire by TTL");
+                    return;
+                }
+                if (e.getErrorCode() == CHANGE_STREAM_HISTORY_LOST) {
+                    resumeToken = null;
+                    cache.invalidateAll();
+                }
+                log.warn("Workflow template change stream failed - Error: {}", e.getMessage());
+                pause();
+            } catch (MongoException e) {
+                log.warn("Workflow template change stream failed - Error: {}", e.getMessage());
+                pause();
+            }
+        }
+    }
+
+    private void apply(ChangeStreamDocument<Document> change) {
+        switch (change.getOperationType()) {
+            case UPDATE -> invalidate(idOf(change), change.getUpdateDescription() != null
+                    ? toLong(change.getUpdateDescription().getUpdatedFields() != null
+                            ? change.getUpdateDescription().getUpdatedFields().get("version")
+                            : null)
+                    : null);
+            case REPLACE -> invalidate(idOf(change), change.getFullDocument() != null
+                    ? toLong(change.getFullDocument().get("version"))
+                    : null);
+            case DELETE -> invalidate(idOf(change), null);
+            case DROP, RENAME, DROP_DATABASE, INVALIDATE -> cache.invalidateAll();
+            default -> {
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(retryDelay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private Document toDocument(WorkflowTemplate template) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(template, document);
+        return document;
+    }
+
+    private int weigh(Document document) {
+        Codec<Document> codec = mongoTemplate.getDb().getCodecRegistry().get(Document.class);
+        return new RawBsonDocument(document, codec).getByteBuffer().remaining();
+    }
+
+    private static String idOf(ChangeStreamDocument<Document> change) {
+        BsonValue id = change.getDocumentKey() != null ? change.getDocumentKey().get("_id") : null;
+        if (id == null) {
+            return null;
+        }
+        return id.isString() ? id.asString().getValue() : id.isObjectId() ? id.asObjectId().getValue().toHexString()
+                : id.toString();
+    }
+
+    private static Long toLong(Object value) {
+        if (value instanceof BsonValue bson && bson.isNumber()) {
+            return bson.asNumber().longValue();
+        }
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    private static long versionOf(Entry entry) {
+        Long version = entry.template().getVersion();
+        return version != null ? version : -1L;
+    }
+
+    private record Entry(WorkflowTemplate template, int weight) {
+    }
+}
@@ -0,0 +1,249 @@
+package com.thutasann.nano_pulse_workflows.libraries;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.thutasann.nano_pulse_workflows.entities.WorkflowTemplate;
+import com.thutasann.nano_pulse_workflows.entities.WorkflowVersion;
+import com.thutasann.nano_pulse_workflows.repositories.WorkflowVersionRepository;
+
+/**
+ * Workflow Version Store
+ *
+ * Stores version history as periodic full snapshots with JSON Patch deltas
+ * in between. Version 1 and every {@code snapshot-interval}th version after
+ * it keep the whole template in {@code workflowData}; the others keep only
+ * the {@link TemplateDelta} from the previous version, unless the delta
+ * would be larger than {@code max-delta-ratio} of the template, in which
+ * case a snapshot is written early.
+ *
+ * A version is rebuilt from the nearest snapshot at or below it, or from a
+ * more recent materialized version still in the cache, by replaying at most
+ * {@code snapshot-interval - 1} deltas. Rebuilt templates are cached as well,
+ * so executions pinned to an older version by a rollback do not rebuild it
+ * per run. Versions written before this store existed all carry
+ * {@code workflowData} and read as snapshots.
+ *
+ * Both rebuild queries run on the unique {@code template_version_idx}
+ * ({@code templateId, versionNumber}), which this store creates on startup:
+ * the snapshot lookup walks it backwards from the target and stops at the
+ * first snapshot, and the deltas come back in one range scan of it.
+ */
+@Component
+public class WorkflowVersionStore {
+
+    private static final String VERSION_INDEX_NAME = "template_version_idx";
+
+    private final WorkflowVersionRepository workflowVersionRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final int snapshotInterval;
+    private final double maxDeltaRatio;
+    private final Cache<VersionKey, JsonNode> materialized;
+    private final Cache<VersionKey, WorkflowTemplate> templates;
+
+    public WorkflowVersionStore(
+            WorkflowVersionRepository workflowVersionRepository,
+            MongoTemplate mongoTemplate,
+            ObjectMapper objectMapper,
+            @Value("${workflows.versions.snapshot-interval:20}") int snapshotInterval,
+            @Value("${workflows.versions.max-delta-ratio:0.5}") double maxDeltaRatio,
+            @Value("${workflows.versions.cache-size:512}") long cacheSize) {
+        this.workflowVersionRepository = workflowVersionRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.snapshotInterval = Math.max(1, snapshotInterval);
+        this.maxDeltaRatio = maxDeltaRatio;
+        this.materialized = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+        this.templates = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    /**
+     * Index auto-creation is off, so the unique version index declared on
+     * {@link WorkflowVersion} is created here. Without it a trailing version
+     * counter would insert a second copy of a version number instead of
+     * failing with a duplicate key.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureVersionIndex() {
+        mongoTemplate.indexOps(WorkflowVersion.class).ensureIndex(new Index()
+                .on("templateId", Sort.Direction.ASC)
+                .on("versionNumber", Sort.Direction.ASC)
+                .unique()
+                .named(VERSION_INDEX_NAME));
+    }
+
+    /**
+     * Insert a version built with its full {@code workflowData}. The returned
+     * version still carries the full template, whichever form was stored.
+     * Which version is active is tracked on the template, not here.
+     *
+     * @throws DuplicateKeyException if the version number is already taken
+     */
+    public WorkflowVersion save(WorkflowVersion version) {
+        WorkflowTemplate data = version.getWorkflowData();
+        JsonNode tree = objectMapper.valueToTree(data);
+        String delta = deltaFromPrevious(version.getTemplateId(), version.getVersionNumber(), tree);
+
+        if (delta != null) {
+            version.setWorkflowData(null);
+            version.setDelta(delta);
+        } else {
+            version.setDelta(null);
+        }
+        mongoTemplate.insert(version);
+        version.setWorkflowData(data);
+
+        // inside a transaction, only cache once the version is committed
+        VersionKey key = new VersionKey(version.getTemplateId(), version.getVersionNumber());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    materialized.put(key, tree);
+                }
+            });
+        } else {
+            materialized.put(key, tree);
+        }
+        return version;
+    }
+
+    /**
+     * @return the version with its template rebuilt into {@code workflowData}
+     */
+    public Optional<WorkflowVersion> find(String templateId, int versionNumber) {
+        Optional<WorkflowVersion> version = workflowVersionRepository
+                .findByTemplateIdAndVersionNumber(templateId, versionNumber);
+        version.ifPresent(found -> {
+            if (found.getWorkflowData() == null) {
+                materialize(templateId, versionNumber).ifPresent(found::setWorkflowData);
+                found.setDelta(null);
+            }
+        });
+        return version;
+    }
+
+    /**
+     * @return the template as it was at {@code versionNumber}; cached and
+     *         shared, so callers must not modify it
+     */
+    public Optional<WorkflowTemplate> materialize(String templateId, int versionNumber) {
+        VersionKey key = new VersionKey(templateId, versionNumber);
+        WorkflowTemplate cached = templates.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return materializeTree(templateId, versionNumber).map(tree -> {
+            try {
+                WorkflowTemplate template = objectMapper.treeToValue(tree, WorkflowTemplate.class);
+                templates.put(key, template);
+                return template;
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Error rebuilding workflow template version", e);
+            }
+        });
+    }
+
+    /**
+     * @return delta from the previous version, or null if this version should
+     *         be stored as a snapshot
+     */
+    private String deltaFromPrevious(String templateId, Integer versionNumber, JsonNode tree) {
+        if (versionNumber == null || (versionNumber - 1) % snapshotInterval == 0) {
+            return null;
+        }
+        Optional<JsonNode> previous = materializeTree(templateId, versionNumber - 1);
+        if (previous.isEmpty()) {
+            return null;
+        }
+        String delta = TemplateDelta.diff(objectMapper, previous.get(), tree);
+        try {
+            int fullLength = objectMapper.writeValueAsString(tree).length();
+            return delta.length() <= fullLength * maxDeltaRatio ? delta : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private Optional<JsonNode> materializeTree(String templateId, int versionNumber) {
+        VersionKey key = new VersionKey(templateId, versionNumber);
+        JsonNode cached = materialized.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Query snapshotQuery = Query.query(Criteria.where("templateId").is(templateId)
+                .and("versionNumber").lte(versionNumber)
+                .and("workflowData").ne(null))
+                .with(Sort.by(Sort.Direction.DESC, "versionNumber"))
+                .limit(1);
+        WorkflowVersion snapshot = mongoTemplate.findOne(snapshotQuery, WorkflowVersion.class);
+        if (snapshot == null) {
+            return Optional.empty();
+        }
+
+        // start from the newest materialized version between the snapshot and the target
+        int from = snapshot.getVersionNumber();
+        JsonNode tree = null;
+        for (int candidate = versionNumber - 1; candidate > from; candidate--) {
+            tree = materialized.getIfPresent(new VersionKey(templateId, candidate));
+            if (tree != null) {
+                from = candidate;
+                break;
+            }
+        }
+        if (tree == null) {
+            tree = objectMapper.valueToTree(snapshot.getWorkflowData());
+        }
+
+        if (from < versionNumber) {
+            Query deltaQuery = Query.query(Criteria.where("templateId").is(templateId)
+                    .and("versionNumber").gt(from).lte(versionNumber))
+                    .with(Sort.by(Sort.Direction.ASC, "versionNumber"));
+            deltaQuery.fields().include("versionNumber", "delta");
+            List<WorkflowVersion> deltas = mongoTemplate.find(deltaQuery, WorkflowVersion.class);
+
+            if (deltas.size() != versionNumber - from) {
+                return Optional.empty();
+            }
+            int expected = from + 1;
+            for (WorkflowVersion step : deltas) {
+                if (step.getVersionNumber() != expected++ || step.getDelta() == null) {
+                    throw new IllegalStateException("Version history of workflow template " + templateId
+                            + " is broken at version " + (expected - 1));
+                }
+            }
+            tree = TemplateDelta.replay(objectMapper, tree,
+                    deltas.stream().map(WorkflowVersion::getDelta).toList());
+        }
+
+        materialized.put(key, tree);
+        return Optional.of(tree);
+    }
+
+    private record VersionKey(String templateId, int versionNumber) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.thutasann.nano_pulse_workflows.repositories;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.thutasann.nano_pulse_workflows.entities.WorkflowVersionActivation;
+
+@Repository
+public interface WorkflowVersionActivationRepository extends MongoRepository<WorkflowVersionActivation, String> {
+    List<WorkflowVersionActivation> findByTemplateIdOrderByActivatedAtDesc(String templateId);
+}
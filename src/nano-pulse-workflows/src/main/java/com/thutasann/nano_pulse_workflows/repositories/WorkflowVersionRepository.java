@@ -13,6 +13,7 @@ public interface WorkflowVersionRepository extends MongoRepository<WorkflowVersi
     @Query(value = "{ 'templateId': ?0 }", sort = "{ 'versionNumber': -1 }")
     Optional<WorkflowVersion> findTopByTemplateIdOrderByVersionNumberDesc(String templateId);
 
-    @Query("{ 'templateId': ?0 }")
-    void deactivatePreviousVersions(String templateId);
+    Optional<WorkflowVersion> findByTemplateIdAndVersionNumber(String templateId, Integer versionNumber);
+
+    boolean existsByTemplateIdAndVersionNumber(String templateId, Integer versionNumber);
 }
@@ -0,0 +1,39 @@
+package com.thutasann.nano_pulse_workflows.response;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.thutasann.nano_pulse_workflows.entities.WorkflowTemplate.WorkflowStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Listing view of a workflow template, without its steps, triggers or
+ * metadata
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowTemplateSummary {
+    private String id;
+
+    private String name;
+
+    private WorkflowStatus status;
+
+    @Builder.Default
+    private List<String> tags = new ArrayList<>();
+
+    private LocalDateTime updatedAt;
+
+    private int stepCount;
+
+    private int triggerCount;
+
+    private Long executionCount;
+}
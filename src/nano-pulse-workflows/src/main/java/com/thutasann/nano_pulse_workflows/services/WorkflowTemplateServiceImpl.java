@@ -1,26 +1,59 @@
 package com.thutasann.nano_pulse_workflows.services;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.thutasann.nano_pulse_workflows.entities.WorkflowTemplate;
 import com.thutasann.nano_pulse_workflows.entities.WorkflowVersion;
+import com.thutasann.nano_pulse_workflows.entities.WorkflowVersionActivation;
 import com.thutasann.nano_pulse_workflows.exceptions.ResourceNotFoundException;
 import com.thutasann.nano_pulse_workflows.exceptions.ValidationException;
 import com.thutasann.nano_pulse_workflows.interfaces.WorkflowTemplateService;
+import com.thutasann.nano_pulse_workflows.libraries.TemplateListCursor;
+import com.thutasann.nano_pulse_workflows.libraries.WorkflowTemplateCache;
+import com.thutasann.nano_pulse_workflows.libraries.WorkflowVersionStore;
 import com.thutasann.nano_pulse_workflows.repositories.WorkflowTemplateRepository;
+import com.thutasann.nano_pulse_workflows.repositories.WorkflowVersionActivationRepository;
 import com.thutasann.nano_pulse_workflows.repositories.WorkflowVersionRepository;
+import com.thutasann.nano_pulse_workflows.response.WorkflowTemplateSummary;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service
 public class WorkflowTemplateServiceImpl implements WorkflowTemplateService {
+    private static final String LISTING_INDEX_NAME = "tenant_updated_idx";
+    private static final List<String> SERVER_MANAGED_FIELDS = List.of("_id", "_class", "templateId", "createdBy",
+            "createdAt", "updatedAt", "version", "latestVersionNumber", "activeVersionNumber", "isActive",
+            "executionCount", "lastExecutedAt", "averageExecutionTimeMS");
 
     @Autowired
     private WorkflowTemplateRepository workflowTemplateRepository;
@@ -28,6 +61,25 @@ public class WorkflowTemplateServiceImpl implements WorkflowTemplateService {
     private WorkflowVersionRepository workflowVersionRepository;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private WorkflowVersionActivationRepository workflowVersionActivationRepository;
+    @Autowired
+    private WorkflowVersionStore workflowVersionStore;
+    @Autowired
+    private WorkflowTemplateCache templateCache;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${workflows.listing.max-page-size:200}")
+    private int maxPageSize;
+
+    @Value("${workflows.update.max-attempts:3}")
+    private int maxUpdateAttempts;
+
+    private volatile List<String> contentFields;
+    private volatile Boolean transactionsSupported;
 
     @Override
     public WorkflowTemplate createWorkflowTemplate(WorkflowTemplate workflowTemplate, String userId) {
@@ -41,9 +93,11 @@ public class WorkflowTemplateServiceImpl implements WorkflowTemplateService {
         workflowTemplate.setCreatedBy(userId);
         workflowTemplate.setCreatedAt(LocalDateTime.now());
         workflowTemplate.setUpdatedAt(LocalDateTime.now());
-        workflowTemplate.setVersion(0L);
+        workflowTemplate.setVersion(null);
+        workflowTemplate.setLatestVersionNumber(1);
         workflowTemplate.setExecutionCount(0L);
         WorkflowTemplate savedTemplate = workflowTemplateRepository.save(workflowTemplate);
+        templateCache.put(savedTemplate);
 
         WorkflowVersion workflowVersion = WorkflowVersion.builder()
                 .id(UUID.randomUUID().toString())
@@ -55,60 +109,312 @@ public class WorkflowTemplateServiceImpl implements WorkflowTemplateService {
                 .createdAt(LocalDateTime.now())
                 .changeDescription("Initial version")
                 .build();
-        workflowVersionRepository.save(workflowVersion);
+        workflowVersionStore.save(workflowVersion);
 
         return savedTemplate;
     }
 
+    /**
+     * Served from {@link WorkflowTemplateCache}; the returned template is shared
+     * and must not be modified.
+     */
     @Override
     public Optional<WorkflowTemplate> getWorkflowTemplateById(String id) {
-        return workflowTemplateRepository.findById(id);
+        return templateCache.get(id);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureListingIndex() {
+        mongoTemplate.indexOps(WorkflowTemplate.class).ensureIndex(new Index()
+                .on("tenantId", Sort.Direction.ASC)
+                .on("updatedAt", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named(LISTING_INDEX_NAME));
     }
 
+    /**
+     * Keyset listing over the {@code tenant_updated_idx} index. Summaries are
+     * projected server-side and written as they come off the cursor; one extra
+     * row is fetched to tell whether another page follows.
+     */
     @Override
-    public List<WorkflowTemplate> getWorkflowTemplatesByTenantId(String tenantId) {
-        return workflowTemplateRepository.findByTenantId(tenantId);
+    public void writeWorkflowTemplateSummaries(String tenantId, TemplateListCursor cursor, int limit,
+            OutputStream output) throws IOException {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+
+        Criteria criteria = Criteria.where("tenantId").is(tenantId);
+        if (cursor != null) {
+            criteria = criteria.orOperator(
+                    Criteria.where("updatedAt").lt(cursor.updatedAt()),
+                    Criteria.where("updatedAt").is(cursor.updatedAt()).and("_id").lt(cursor.id()));
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "updatedAt", "_id")),
+                Aggregation.limit(pageSize + 1L),
+                Aggregation.project("name", "status", "tags", "updatedAt", "executionCount")
+                        .and(ArrayOperators.Size.lengthOfArray(
+                                ConditionalOperators.ifNull("steps").then(Collections.emptyList())))
+                        .as("stepCount")
+                        .and(ArrayOperators.Size.lengthOfArray(
+                                ConditionalOperators.ifNull("triggers").then(Collections.emptyList())))
+                        .as("triggerCount"));
+
+        try (Stream<Document> rows = mongoTemplate.aggregateStream(aggregation,
+                mongoTemplate.getCollectionName(WorkflowTemplate.class), Document.class);
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.writeStartObject();
+            generator.writeBooleanField("success", true);
+            generator.writeStringField("message", "Workflow templates retrieved successfully");
+            generator.writeObjectFieldStart("data");
+            generator.writeArrayFieldStart("items");
+
+            int written = 0;
+            Document last = null;
+            boolean hasMore = false;
+            for (Document row : (Iterable<Document>) rows::iterator) {
+                if (written == pageSize) {
+                    hasMore = true;
+                    break;
+                }
+                generator.writeObject(mongoTemplate.getConverter().read(WorkflowTemplateSummary.class, row));
+                last = row;
+                written++;
+            }
+
+            generator.writeEndArray();
+            if (hasMore) {
+                generator.writeStringField("nextCursor",
+                        new TemplateListCursor(last.getDate("updatedAt"), last.getString("_id")).encode());
+            } else {
+                generator.writeNullField("nextCursor");
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
     }
 
+    /**
+     * Replaces the template content and allocates its next version number in
+     * one findAndModify ({@code $inc} on {@code latestVersionNumber}), which
+     * also clears any rollback pin so the new version becomes active, then
+     * inserts the version in the same transaction. Content fields left null in
+     * the request are removed, so this is a replace rather than a merge.
+     * Concurrent editors are serialized on the template document; a write
+     * conflict is retried up to {@code workflows.update.max-attempts} times.
+     *
+     * On a standalone server, which has no transactions, the two writes run
+     * unwrapped: a failed version insert leaves its number unused, and the
+     * version store writes the next version as a full snapshot.
+     */
     @Override
     public WorkflowVersion updateWorkflowTemplate(String id, WorkflowTemplate workflowTemplate, String userId,
             String changeDescription) {
 
-        WorkflowTemplate existingTemplate = workflowTemplateRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Workflow template not found with this Id : " + id));
-
         List<String> validationErrors = validateWorkflowTemplate(workflowTemplate);
         if (!validationErrors.isEmpty()) {
             throw new ValidationException("Invalid Workflow Template " + String.join(", ", validationErrors));
         }
 
-        workflowTemplate.setId(existingTemplate.getId());
-        workflowTemplate.setTemplateId(existingTemplate.getTemplateId());
-        workflowTemplate.setCreatedBy(existingTemplate.getCreatedBy());
-        workflowTemplate.setCreatedAt(existingTemplate.getCreatedAt());
-        workflowTemplate.setUpdatedAt(LocalDateTime.now());
-        workflowTemplate.setVersion(existingTemplate.getVersion() + 1);
-        workflowTemplate.setExecutionCount(existingTemplate.getExecutionCount());
-
-        WorkflowTemplate updatedTemplate = workflowTemplateRepository.save(workflowTemplate);
+        Document content = new Document();
+        mongoTemplate.getConverter().write(workflowTemplate, content);
+        SERVER_MANAGED_FIELDS.forEach(content::remove);
+
+        Update update = new Update()
+                .set("updatedAt", LocalDateTime.now())
+                .inc("version", 1)
+                .inc("latestVersionNumber", 1)
+                .unset("activeVersionNumber");
+        content.forEach(update::set);
+        contentFields().stream()
+                .filter(field -> !content.containsKey(field))
+                .forEach(update::unset);
+
+        boolean reallocated = false;
+        for (int attempt = 1;; attempt++) {
+            try {
+                WorkflowVersion saved = transactionsSupported()
+                        ? transactionTemplate.execute(status -> writeVersion(id, update, userId, changeDescription))
+                        : writeVersion(id, update, userId, changeDescription);
+                templateCache.put(saved.getWorkflowData());
+                return saved;
+            } catch (DuplicateKeyException e) {
+                if (reallocated) {
+                    throw e;
+                }
+                // the counter trails existing history (template written before it was
+                // backfilled); move it up to the latest version and take the next number
+                reallocateVersionNumber(id);
+                reallocated = true;
+            } catch (TransientDataAccessException e) {
+                if (attempt >= maxUpdateAttempts) {
+                    throw e;
+                }
+            }
+        }
+    }
 
-        Integer latestVersionNumber = workflowVersionRepository.findTopByTemplateIdOrderByVersionNumberDesc(id)
-                .map(WorkflowVersion::getVersionNumber).orElse(0);
+    private WorkflowVersion writeVersion(String id, Update update, String userId, String changeDescription) {
+        WorkflowTemplate updatedTemplate = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                WorkflowTemplate.class);
+        if (updatedTemplate == null) {
+            throw new ResourceNotFoundException("Workflow template not found with this Id : " + id);
+        }
 
-        WorkflowVersion newVersion = WorkflowVersion.builder()
+        return workflowVersionStore.save(WorkflowVersion.builder()
                 .id(UUID.randomUUID().toString())
                 .templateId(updatedTemplate.getId())
-                .versionNumber(latestVersionNumber + 1)
+                .versionNumber(updatedTemplate.getLatestVersionNumber())
                 .createdBy(userId)
                 .workflowData(updatedTemplate)
                 .isActive(true)
                 .createdAt(LocalDateTime.now())
                 .changeDescription(changeDescription)
+                .build());
+    }
+
+    private void reallocateVersionNumber(String id) {
+        int latest = workflowVersionRepository.findTopByTemplateIdOrderByVersionNumberDesc(id)
+                .map(WorkflowVersion::getVersionNumber).orElse(0);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)),
+                new Update().max("latestVersionNumber", latest), WorkflowTemplate.class);
+    }
+
+    /**
+     * @return stored field names of the client-editable template content
+     */
+    private List<String> contentFields() {
+        List<String> fields = contentFields;
+        if (fields == null) {
+            List<String> names = new ArrayList<>();
+            for (MongoPersistentProperty property : mongoTemplate.getConverter().getMappingContext()
+                    .getRequiredPersistentEntity(WorkflowTemplate.class)) {
+                names.add(property.getFieldName());
+            }
+            names.removeAll(SERVER_MANAGED_FIELDS);
+            fields = contentFields = List.copyOf(names);
+        }
+        return fields;
+    }
+
+    /**
+     * @return whether the server is a replica set member or mongos, the
+     *         deployments that support multi-document transactions
+     */
+    private boolean transactionsSupported() {
+        Boolean supported = transactionsSupported;
+        if (supported == null) {
+            Document hello = mongoTemplate.executeCommand(new Document("hello", 1));
+            supported = transactionsSupported = hello.containsKey("setName")
+                    || "isdbgrid".equals(hello.getString("msg"));
+        }
+        return supported;
+    }
+
+    /**
+     * Seeds {@code latestVersionNumber} on templates created before it existed
+     * from their highest stored version, server-side. {@code $max} keeps it
+     * safe to run alongside updates and on every node.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillVersionCounters() {
+        Query missing = Query.query(Criteria.where("latestVersionNumber").exists(false));
+        if (!mongoTemplate.exists(missing, WorkflowTemplate.class)) {
+            return;
+        }
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(WorkflowVersion.class))
+                .aggregate(List.of(
+                        new Document("$group", new Document("_id", "$templateId")
+                                .append("latestVersionNumber", new Document("$max", "$versionNumber"))),
+                        new Document("$merge", new Document("into",
+                                mongoTemplate.getCollectionName(WorkflowTemplate.class))
+                                .append("on", "_id")
+                                .append("whenMatched", List.of(new Document("$set",
+                                        new Document("latestVersionNumber", new Document("$max", List.of(
+                                                new Document("$ifNull", List.of("$latestVersionNumber", 0)),
+                                                "$$new.latestVersionNumber"))))))
+                                .append("whenNotMatched", "discard"))))
+                .toCollection();
+        mongoTemplate.updateMulti(missing, new Update().set("latestVersionNumber", 0), WorkflowTemplate.class);
+    }
+
+    @Override
+    public Optional<WorkflowVersion> getWorkflowTemplateVersion(String id, int versionNumber) {
+        Integer active = templateCache.get(id).map(WorkflowTemplateServiceImpl::activeVersionNumber).orElse(null);
+        return workflowVersionStore.find(id, versionNumber).map(version -> {
+            version.setActive(Integer.valueOf(versionNumber).equals(active));
+            return version;
+        });
+    }
+
+    /**
+     * Resolves the pointer on the cached template. The template document holds
+     * the latest version, so only a pinned older version is rebuilt from
+     * history, and the version store keeps recently rebuilt ones.
+     */
+    @Override
+    public Optional<WorkflowTemplate> getActiveWorkflowTemplate(String id) {
+        return templateCache.get(id).flatMap(template -> {
+            Integer pinned = template.getActiveVersionNumber();
+            if (pinned == null || pinned.equals(template.getLatestVersionNumber())) {
+                return Optional.of(template);
+            }
+            return workflowVersionStore.materialize(id, pinned);
+        });
+    }
+
+    /**
+     * Moves the active version pointer with one findAndModify that returns
+     * only the pointer fields, then records the change. No version or template
+     * data is copied.
+     */
+    @Override
+    public WorkflowVersionActivation rollbackWorkflowTemplate(String id, int versionNumber, String userId,
+            String reason) {
+        if (!workflowVersionRepository.existsByTemplateIdAndVersionNumber(id, versionNumber)) {
+            throw new ResourceNotFoundException(
+                    "Version " + versionNumber + " not found for workflow template with id: " + id);
+        }
+
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("version", "latestVersionNumber", "activeVersionNumber");
+        WorkflowTemplate previous = mongoTemplate.findAndModify(
+                query,
+                new Update()
+                        .set("activeVersionNumber", versionNumber)
+                        .set("updatedAt", LocalDateTime.now())
+                        .inc("version", 1),
+                WorkflowTemplate.class);
+        if (previous == null) {
+            throw new ResourceNotFoundException("Workflow template not found with id: " + id);
+        }
+        templateCache.invalidate(id, previous.getVersion() != null ? previous.getVersion() + 1 : null);
+
+        WorkflowVersionActivation activation = WorkflowVersionActivation.builder()
+                .id(UUID.randomUUID().toString())
+                .templateId(id)
+                .fromVersionNumber(activeVersionNumber(previous))
+                .toVersionNumber(versionNumber)
+                .activatedBy(userId)
+                .reason(reason)
+                .activatedAt(LocalDateTime.now())
                 .build();
+        return workflowVersionActivationRepository.insert(activation);
+    }
 
-        workflowVersionRepository.deactivatePreviousVersions(id);
+    @Override
+    public List<WorkflowVersionActivation> getWorkflowTemplateActivations(String id) {
+        return workflowVersionActivationRepository.findByTemplateIdOrderByActivatedAtDesc(id);
+    }
 
-        return workflowVersionRepository.save(newVersion);
+    private static Integer activeVersionNumber(WorkflowTemplate template) {
+        return template.getActiveVersionNumber() != null
+                ? template.getActiveVersionNumber()
+                : template.getLatestVersionNumber();
     }
 
     @Override
@@ -118,7 +424,9 @@ public class WorkflowTemplateServiceImpl implements WorkflowTemplateService {
 
         template.setActive(active);
         template.setUpdatedAt(LocalDateTime.now());
-        return workflowTemplateRepository.save(template);
+        WorkflowTemplate savedTemplate = workflowTemplateRepository.save(template);
+        templateCache.put(savedTemplate);
+        return savedTemplate;
     }
 
     @Override
@@ -129,13 +437,13 @@ public class WorkflowTemplateServiceImpl implements WorkflowTemplateService {
         template.setActive(false);
         template.setUpdatedAt(LocalDateTime.now());
 
-        workflowTemplateRepository.save(template);
+        templateCache.put(workflowTemplateRepository.save(template));
     }
 
     @Override
     public WorkflowTemplate cloneWorkflowTemplate(String id, String newName, String userId) {
 
-        WorkflowTemplate template = workflowTemplateRepository.findById(id)
+        WorkflowTemplate template = templateCache.get(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Workflow template not found with id: " + id));
 
         WorkflowTemplate clonedTemplate;
@@ -151,9 +459,12 @@ public class WorkflowTemplateServiceImpl implements WorkflowTemplateService {
         clonedTemplate.setCreatedBy(userId);
         clonedTemplate.setCreatedAt(LocalDateTime.now());
         clonedTemplate.setUpdatedAt(LocalDateTime.now());
-        clonedTemplate.setVersion(0L);
+        clonedTemplate.setVersion(null);
+        clonedTemplate.setLatestVersionNumber(1);
+        clonedTemplate.setActiveVersionNumber(null);
         clonedTemplate.setExecutionCount(0L);
         WorkflowTemplate savedClone = workflowTemplateRepository.save(clonedTemplate);
+        templateCache.put(savedClone);
 
         WorkflowVersion initialVersion = WorkflowVersion.builder()
                 .id(UUID.randomUUID().toString())
@@ -166,7 +477,7 @@ public class WorkflowTemplateServiceImpl implements WorkflowTemplateService {
                 .changeDescription("Cloned from template " + id)
                 .build();
 
-        workflowVersionRepository.save(initialVersion);
+        workflowVersionStore.save(initialVersion);
         return savedClone;
     }
 
@@ -209,7 +520,7 @@ public class WorkflowTemplateServiceImpl implements WorkflowTemplateService {
 
     @Override
     public String exportWorkflowTemplate(String id) {
-        WorkflowTemplate template = workflowTemplateRepository.findById(id)
+        WorkflowTemplate template = templateCache.get(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Workflow template not found with id: " + id));
 
         try {
@@ -231,10 +542,13 @@ public class WorkflowTemplateServiceImpl implements WorkflowTemplateService {
             importedTemplate.setCreatedBy(userId);
             importedTemplate.setCreatedAt(LocalDateTime.now());
             importedTemplate.setUpdatedAt(LocalDateTime.now());
-            importedTemplate.setVersion(0L);
+            importedTemplate.setVersion(null);
+            importedTemplate.setLatestVersionNumber(1);
+            importedTemplate.setActiveVersionNumber(null);
             importedTemplate.setExecutionCount(0L);
 
             WorkflowTemplate savedTemplate = workflowTemplateRepository.save(importedTemplate);
+            templateCache.put(savedTemplate);
 
             WorkflowVersion initialVersion = WorkflowVersion.builder()
                     .id(UUID.randomUUID().toString())
@@ -247,7 +561,7 @@ public class WorkflowTemplateServiceImpl implements WorkflowTemplateService {
                     .changeDescription("Imported template")
                     .build();
 
-            workflowVersionRepository.save(initialVersion);
+            workflowVersionStore.save(initialVersion);
 
             return savedTemplate;
         } catch (Exception e) {
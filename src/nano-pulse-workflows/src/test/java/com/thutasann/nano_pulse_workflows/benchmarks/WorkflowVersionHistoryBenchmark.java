@@ -0,0 +1,187 @@
+package com.thutasann.nano_pulse_workflows.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.thutasann.nano_pulse_workflows.entities.WorkflowTemplate;
+import com.thutasann.nano_pulse_workflows.entities.components.WorkflowStep;
+import com.thutasann.nano_pulse_workflows.entities.components.WorkflowStep.StepType;
+import com.thutasann.nano_pulse_workflows.entities.components.WorkflowTrigger;
+import com.thutasann.nano_pulse_workflows.libraries.TemplateDelta;
+
+/**
+ * Workflow Version History Benchmark
+ *
+ * A 1,000-version history of a 30-step template where each version edits
+ * one step, stored the way {@code WorkflowVersionStore} stores it: a
+ * snapshot every {@code snapshotInterval} versions and deltas in between.
+ * {@code snapshotInterval = 1} is the old full-copy-per-version layout.
+ *
+ * Stored bytes for the whole history are printed at setup. The benchmarks
+ * time rebuilding a version from its snapshot on a cache miss, excluding
+ * the Mongo round trips: {@code latest} is version 1,000 and
+ * {@code longestChain} is the version furthest from its snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkflowVersionHistoryBenchmark {
+
+    private static final int HISTORY = 1_000;
+    private static final int STEPS = 30;
+
+    @Param({ "1", "20", "50" })
+    public int snapshotInterval;
+
+    private ObjectMapper objectMapper;
+    private WorkflowTemplate[] snapshots;
+    private String[] deltas;
+    private int longestChain;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        snapshots = new WorkflowTemplate[HISTORY + 1];
+        deltas = new String[HISTORY + 1];
+
+        Random random = new Random(42);
+        WorkflowTemplate template = template();
+        JsonNode previous = null;
+        long storedBytes = 0;
+        long fullCopyBytes = 0;
+        for (int version = 1; version <= HISTORY; version++) {
+            if (version > 1) {
+                edit(template, version, random);
+            }
+            JsonNode tree = objectMapper.valueToTree(template);
+            int fullBytes = objectMapper.writeValueAsBytes(tree).length;
+            fullCopyBytes += fullBytes;
+
+            if ((version - 1) % snapshotInterval == 0) {
+                snapshots[version] = objectMapper.treeToValue(tree, WorkflowTemplate.class);
+                storedBytes += fullBytes;
+            } else {
+                deltas[version] = TemplateDelta.diff(objectMapper, previous, tree);
+                storedBytes += deltas[version].getBytes(StandardCharsets.UTF_8).length;
+            }
+            previous = tree;
+        }
+
+        longestChain = Math.min(HISTORY, snapshotInterval);
+        System.out.printf("%n%,d versions, snapshot every %d: %,d bytes stored, %,d bytes as full copies%n",
+                HISTORY, snapshotInterval, storedBytes, fullCopyBytes);
+    }
+
+    @Benchmark
+    public WorkflowTemplate latest() throws JsonProcessingException {
+        return materialize(HISTORY);
+    }
+
+    @Benchmark
+    public WorkflowTemplate longestChain() throws JsonProcessingException {
+        return materialize(longestChain);
+    }
+
+    private WorkflowTemplate materialize(int version) throws JsonProcessingException {
+        int snapshot = version;
+        while (snapshots[snapshot] == null) {
+            snapshot--;
+        }
+        JsonNode tree = TemplateDelta.replay(objectMapper, objectMapper.valueToTree(snapshots[snapshot]),
+                Arrays.asList(deltas).subList(snapshot + 1, version + 1));
+        return objectMapper.treeToValue(tree, WorkflowTemplate.class);
+    }
+
+    private static WorkflowTemplate template() {
+        List<WorkflowStep> steps = new ArrayList<>();
+        for (int i = 0; i < STEPS; i++) {
+            Map<String, Object> config = new HashMap<>();
+            for (int key = 0; key < 10; key++) {
+                config.put("option" + key, "value-" + i + "-" + key + "-lorem-ipsum-dolor-sit-amet");
+            }
+            Map<String, Object> schema = new HashMap<>();
+            schema.put("type", "object");
+            schema.put("required", List.of("id", "payload", "timestamp"));
+            steps.add(WorkflowStep.builder()
+                    .id("step-" + i)
+                    .name("Step " + i)
+                    .type(StepType.values()[i % StepType.values().length])
+                    .integrationId("integration-" + (i % 5))
+                    .config(config)
+                    .nextSteps(i + 1 < STEPS ? List.of("step-" + (i + 1)) : List.of())
+                    .position(i)
+                    .inputSchema(schema)
+                    .outputSchema(new HashMap<>(schema))
+                    .retryCount(3)
+                    .timeoutSeconds(30)
+                    .build());
+        }
+        return WorkflowTemplate.builder()
+                .id("template-1")
+                .templateId("template-1")
+                .name("Order fulfilment")
+                .tenantId("tenant-1")
+                .createdBy("user-1")
+                .triggers(new ArrayList<>(List.of(WorkflowTrigger.builder()
+                        .id("trigger-1")
+                        .name("Order placed")
+                        .build())))
+                .steps(steps)
+                .tags(new ArrayList<>(List.of("orders")))
+                .createdAt(LocalDateTime.of(2025, 1, 1, 0, 0))
+                .updatedAt(LocalDateTime.of(2025, 1, 1, 0, 0))
+                .version(0L)
+                .executionCount(0L)
+                .build();
+    }
+
+    private static void edit(WorkflowTemplate template, int version, Random random) {
+        WorkflowStep step = template.getSteps().get(random.nextInt(STEPS));
+        step.getConfig().put("option" + random.nextInt(10), "value-v" + version + "-lorem-ipsum-dolor-sit-amet");
+        if (version % 10 == 0) {
+            step.setName("Step " + step.getPosition() + " rev " + version);
+        }
+        if (version % 100 == 0) {
+            template.getTags().add("rev-" + version);
+        }
+        template.setUpdatedAt(template.getUpdatedAt().plusMinutes(5));
+        template.setVersion((long) version - 1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WorkflowVersionHistoryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
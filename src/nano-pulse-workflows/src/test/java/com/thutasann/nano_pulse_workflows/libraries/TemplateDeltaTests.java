@@ -0,0 +1,81 @@
+package com.thutasann.nano_pulse_workflows.libraries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+class TemplateDeltaTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void replayingADiffRebuildsTheTarget() {
+        JsonNode from = template("Order fulfilment", "step-1", "step-2");
+        ObjectNode to = template("Order fulfilment v2", "step-1", "step-3");
+        ((ObjectNode) to.get("metadata")).put("owner.team", "payments");
+
+        String delta = TemplateDelta.diff(objectMapper, from, to);
+
+        assertThat(TemplateDelta.replay(objectMapper, from, List.of(delta))).isEqualTo(to);
+    }
+
+    @Test
+    void replaysAChainOfDeltasInOrder() {
+        List<JsonNode> versions = List.of(
+                template("Order fulfilment", "step-1"),
+                template("Order fulfilment", "step-1", "step-2"),
+                template("Order fulfilment v3", "step-2"),
+                template("Order fulfilment v3", "step-2", "step-1", "step-4"));
+        List<String> deltas = new ArrayList<>();
+        for (int i = 1; i < versions.size(); i++) {
+            deltas.add(TemplateDelta.diff(objectMapper, versions.get(i - 1), versions.get(i)));
+        }
+
+        for (int i = 0; i < versions.size(); i++) {
+            assertThat(TemplateDelta.replay(objectMapper, versions.get(0), deltas.subList(0, i)))
+                    .isEqualTo(versions.get(i));
+        }
+    }
+
+    @Test
+    void leavesTheBaseUntouched() {
+        JsonNode base = template("Order fulfilment", "step-1");
+        JsonNode copy = base.deepCopy();
+        String delta = TemplateDelta.diff(objectMapper, base, template("Renamed", "step-2"));
+
+        JsonNode replayed = TemplateDelta.replay(objectMapper, base, List.of(delta));
+        JsonNode unchanged = TemplateDelta.replay(objectMapper, base, List.of());
+
+        assertThat(base).isEqualTo(copy);
+        assertThat(replayed).isNotEqualTo(base);
+        assertThat(unchanged).isEqualTo(base).isNotSameAs(base);
+    }
+
+    @Test
+    void rejectsUndecodableDeltas() {
+        assertThatThrownBy(() -> TemplateDelta.replay(objectMapper, template("Order fulfilment"), List.of("[{")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private ObjectNode template(String name, String... stepIds) {
+        ObjectNode template = objectMapper.createObjectNode();
+        template.put("name", name);
+        ArrayNode steps = template.putArray("steps");
+        for (String stepId : stepIds) {
+            ObjectNode step = steps.addObject();
+            step.put("id", stepId);
+            step.putObject("config").put("url", "https://example.com/" + stepId);
+        }
+        template.putObject("metadata").put("a/b", "escaped pointer");
+        return template;
+    }
+}
@@ -0,0 +1,280 @@
+package com.thutasann.nano_pulse_workflows.libraries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.thutasann.nano_pulse_workflows.entities.WorkflowTemplate;
+import com.thutasann.nano_pulse_workflows.entities.WorkflowVersion;
+import com.thutasann.nano_pulse_workflows.entities.components.WorkflowStep;
+import com.thutasann.nano_pulse_workflows.repositories.WorkflowVersionRepository;
+
+class WorkflowVersionStoreTests {
+
+    private static final String ID = "template-1";
+    private static final int SNAPSHOT_INTERVAL = 5;
+    private static final double MAX_DELTA_RATIO = 0.5;
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final WorkflowVersionRepository workflowVersionRepository = mock(WorkflowVersionRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    /** {@code workflow_versions} as stored */
+    private final List<WorkflowVersion> stored = new ArrayList<>();
+    /** Templates as saved, by version number */
+    private final Map<Integer, WorkflowTemplate> saved = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.insert(any(WorkflowVersion.class))).thenAnswer(invocation -> {
+            stored.add(copy(invocation.getArgument(0)));
+            return invocation.getArgument(0);
+        });
+        when(mongoTemplate.findOne(any(Query.class), eq(WorkflowVersion.class))).thenAnswer(invocation -> stored
+                .stream()
+                .filter(matching(invocation.getArgument(0)))
+                .max(Comparator.comparing(WorkflowVersion::getVersionNumber))
+                .map(WorkflowVersionStoreTests::copy)
+                .orElse(null));
+        when(mongoTemplate.find(any(Query.class), eq(WorkflowVersion.class))).thenAnswer(invocation -> stored
+                .stream()
+                .filter(matching(invocation.getArgument(0)))
+                .sorted(Comparator.comparing(WorkflowVersion::getVersionNumber))
+                .map(WorkflowVersionStoreTests::copy)
+                .toList());
+        when(workflowVersionRepository.findByTemplateIdAndVersionNumber(anyString(), anyInt()))
+                .thenAnswer(invocation -> stored.stream()
+                        .filter(version -> version.getTemplateId().equals(invocation.getArgument(0))
+                                && version.getVersionNumber().equals(invocation.getArgument(1)))
+                        .findFirst()
+                        .map(WorkflowVersionStoreTests::copy));
+    }
+
+    @Test
+    void storesSnapshotsAtTheIntervalAndDeltasBetween() {
+        saveHistory(newStore(), 12);
+
+        assertThat(stored).allSatisfy(version -> {
+            boolean snapshot = (version.getVersionNumber() - 1) % SNAPSHOT_INTERVAL == 0;
+            assertThat(version.getWorkflowData() != null).isEqualTo(snapshot);
+            assertThat(version.getDelta() != null).isEqualTo(!snapshot);
+        });
+    }
+
+    @Test
+    void rebuildsEveryVersionAcrossSnapshotBoundaries() {
+        saveHistory(newStore(), 12);
+        WorkflowVersionStore fresh = newStore();
+
+        for (int versionNumber = 12; versionNumber >= 1; versionNumber--) {
+            assertSameTemplate(fresh.materialize(ID, versionNumber), saved.get(versionNumber));
+        }
+        Optional<WorkflowVersion> found = newStore().find(ID, 9);
+        assertThat(found).hasValueSatisfying(version -> {
+            assertThat(version.getDelta()).isNull();
+            assertSameTemplate(Optional.of(version.getWorkflowData()), saved.get(9));
+        });
+    }
+
+    @Test
+    void writesASnapshotEarlyWhenTheDeltaIsTooLarge() {
+        WorkflowVersionStore store = newStore();
+        save(store, 1, template(1));
+        save(store, 2, template(2));
+        WorkflowTemplate rewritten = template(3);
+        // a new step larger than the rest of the template: the delta carries all of it
+        WorkflowStep script = step("script", 3);
+        script.getConfig().put("source", "x".repeat(10_000));
+        rewritten.getSteps().add(script);
+        save(store, 3, rewritten);
+        save(store, 4, edited(rewritten, 4));
+
+        assertThat(stored).extracting(version -> version.getWorkflowData() != null)
+                .containsExactly(true, false, true, false);
+        assertSameTemplate(newStore().materialize(ID, 4), saved.get(4));
+    }
+
+    @Test
+    void writesASnapshotAfterAVersionNumberGap() {
+        WorkflowVersionStore store = newStore();
+        save(store, 1, template(1));
+        save(store, 2, template(2));
+        // version 3 was allocated but its write failed
+        save(store, 4, template(4));
+        save(store, 5, template(5));
+
+        assertThat(stored).extracting(version -> version.getWorkflowData() != null)
+                .containsExactly(true, false, true, false);
+        WorkflowVersionStore fresh = newStore();
+        assertThat(fresh.materialize(ID, 3)).isEmpty();
+        assertSameTemplate(fresh.materialize(ID, 5), saved.get(5));
+    }
+
+    @Test
+    void rebuildsFromTheNewestCachedVersionAboveTheSnapshot() {
+        saveHistory(newStore(), 5);
+        WorkflowVersionStore fresh = newStore();
+        assertSameTemplate(fresh.materialize(ID, 3), saved.get(3));
+
+        assertSameTemplate(fresh.materialize(ID, 5), saved.get(5));
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(queries.capture(), eq(WorkflowVersion.class));
+        Document range = queries.getAllValues().get(1).getQueryObject().get("versionNumber", Document.class);
+        assertThat(range.get("$gt")).isEqualTo(3);
+        assertThat(range.get("$lte")).isEqualTo(5);
+    }
+
+    @Test
+    void doesNotRebuildAVersionWhoseDeltaIsMissing() {
+        saveHistory(newStore(), 4);
+        stored.removeIf(version -> version.getVersionNumber() == 3);
+
+        assertThat(newStore().materialize(ID, 4)).isEmpty();
+    }
+
+    @Test
+    void rejectsABrokenDeltaChain() {
+        saveHistory(newStore(), 4);
+        stored.stream().filter(version -> version.getVersionNumber() == 3).forEach(version -> version.setDelta(null));
+
+        assertThatThrownBy(() -> newStore().materialize(ID, 4))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("broken at version 3");
+    }
+
+    @Test
+    void createsTheUniqueVersionIndexTheRebuildQueriesUse() {
+        IndexOperations indexOps = mock(IndexOperations.class);
+        when(mongoTemplate.indexOps(WorkflowVersion.class)).thenReturn(indexOps);
+
+        newStore().ensureVersionIndex();
+
+        ArgumentCaptor<IndexDefinition> index = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOps).ensureIndex(index.capture());
+        assertThat(index.getValue()).isInstanceOf(Index.class);
+        assertThat(index.getValue().getIndexKeys())
+                .isEqualTo(new Document("templateId", 1).append("versionNumber", 1));
+        assertThat(index.getValue().getIndexOptions().getBoolean("unique")).isTrue();
+    }
+
+    @Test
+    void findsNothingWithoutASnapshot() {
+        assertThat(newStore().materialize(ID, 1)).isEmpty();
+        assertThat(newStore().find(ID, 1)).isEmpty();
+    }
+
+    private WorkflowVersionStore newStore() {
+        return new WorkflowVersionStore(workflowVersionRepository, mongoTemplate, objectMapper,
+                SNAPSHOT_INTERVAL, MAX_DELTA_RATIO, 64);
+    }
+
+    private void saveHistory(WorkflowVersionStore store, int versions) {
+        WorkflowTemplate template = template(1);
+        save(store, 1, template);
+        for (int versionNumber = 2; versionNumber <= versions; versionNumber++) {
+            template = edited(template, versionNumber);
+            save(store, versionNumber, template);
+        }
+    }
+
+    private void save(WorkflowVersionStore store, int versionNumber, WorkflowTemplate template) {
+        saved.put(versionNumber, template);
+        WorkflowVersion version = store.save(WorkflowVersion.builder()
+                .templateId(ID)
+                .versionNumber(versionNumber)
+                .workflowData(template)
+                .build());
+        assertThat(version.getWorkflowData()).isSameAs(template);
+    }
+
+    private void assertSameTemplate(Optional<WorkflowTemplate> actual, WorkflowTemplate expected) {
+        assertThat(actual).isPresent();
+        assertThat(objectMapper.valueToTree(actual.get()).equals(objectMapper.valueToTree(expected))).isTrue();
+    }
+
+    private static Predicate<WorkflowVersion> matching(Query query) {
+        Document criteria = query.getQueryObject();
+        Document range = criteria.get("versionNumber", Document.class);
+        return version -> version.getTemplateId().equals(criteria.getString("templateId"))
+                && (!range.containsKey("$gt") || version.getVersionNumber() > range.getInteger("$gt"))
+                && (!range.containsKey("$lte") || version.getVersionNumber() <= range.getInteger("$lte"))
+                && (!criteria.containsKey("workflowData") || version.getWorkflowData() != null);
+    }
+
+    private static WorkflowVersion copy(WorkflowVersion version) {
+        return WorkflowVersion.builder()
+                .id(version.getId())
+                .templateId(version.getTemplateId())
+                .versionNumber(version.getVersionNumber())
+                .workflowData(version.getWorkflowData())
+                .delta(version.getDelta())
+                .build();
+    }
+
+    private static WorkflowTemplate template(int versionNumber) {
+        List<WorkflowStep> steps = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            steps.add(step("step-" + i, versionNumber));
+        }
+        return WorkflowTemplate.builder()
+                .id(ID)
+                .templateId(ID)
+                .tenantId("tenant-1")
+                .name("Order fulfilment")
+                .steps(steps)
+                .version((long) versionNumber - 1)
+                .build();
+    }
+
+    /** A copy of {@code template} with one step's config changed */
+    private WorkflowTemplate edited(WorkflowTemplate template, int versionNumber) {
+        WorkflowTemplate copy = objectMapper.convertValue(template, WorkflowTemplate.class);
+        copy.getSteps().get(versionNumber % copy.getSteps().size()).getConfig()
+                .put("endpoint", "https://example.com/v" + versionNumber);
+        copy.setVersion((long) versionNumber - 1);
+        return copy;
+    }
+
+    private static WorkflowStep step(String id, int versionNumber) {
+        Map<String, Object> config = new HashMap<>();
+        config.put("endpoint", "https://example.com/" + id + "/v" + versionNumber);
+        config.put("method", "POST");
+        return WorkflowStep.builder()
+                .id(id)
+                .name("Step " + id)
+                .config(config)
+                .retryCount(3)
+                .timeoutSeconds(30)
+                .build();
+    }
+}
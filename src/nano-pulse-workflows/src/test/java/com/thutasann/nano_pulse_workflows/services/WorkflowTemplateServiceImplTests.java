@@ -0,0 +1,292 @@
+package com.thutasann.nano_pulse_workflows.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoDatabase;
+import com.thutasann.nano_pulse_workflows.entities.WorkflowTemplate;
+import com.thutasann.nano_pulse_workflows.entities.WorkflowVersion;
+import com.thutasann.nano_pulse_workflows.entities.WorkflowVersionActivation;
+import com.thutasann.nano_pulse_workflows.entities.components.WorkflowStep;
+import com.thutasann.nano_pulse_workflows.entities.components.WorkflowStep.StepType;
+import com.thutasann.nano_pulse_workflows.entities.components.WorkflowTrigger;
+import com.thutasann.nano_pulse_workflows.entities.components.WorkflowTrigger.TriggerType;
+import com.thutasann.nano_pulse_workflows.libraries.WorkflowTemplateCache;
+import com.thutasann.nano_pulse_workflows.libraries.WorkflowVersionStore;
+import com.thutasann.nano_pulse_workflows.repositories.WorkflowTemplateRepository;
+import com.thutasann.nano_pulse_workflows.repositories.WorkflowVersionActivationRepository;
+import com.thutasann.nano_pulse_workflows.repositories.WorkflowVersionRepository;
+
+class WorkflowTemplateServiceImplTests {
+
+    private static final String ID = "template-1";
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final WorkflowTemplateRepository workflowTemplateRepository = mock(WorkflowTemplateRepository.class);
+    private final WorkflowVersionRepository workflowVersionRepository = mock(WorkflowVersionRepository.class);
+    private final WorkflowVersionActivationRepository workflowVersionActivationRepository = mock(
+            WorkflowVersionActivationRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private MappingMongoConverter converter;
+    private WorkflowVersionStore workflowVersionStore;
+    private WorkflowTemplateServiceImpl service;
+
+    /** The template document as stored in {@code workflow_templates} */
+    private Document stored;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        MongoDatabase db = mock(MongoDatabase.class);
+        when(db.getCodecRegistry()).thenReturn(MongoClientSettings.getDefaultCodecRegistry());
+        when(mongoTemplate.getDb()).thenReturn(db);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.findById(eq(ID), eq(Document.class), eq("workflow_templates")))
+                .thenAnswer(invocation -> stored != null ? new Document(stored) : null);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(WorkflowTemplate.class)))
+                .thenAnswer(invocation -> {
+                    WorkflowTemplate previous = converter.read(WorkflowTemplate.class, new Document(stored));
+                    Document update = invocation.<Update>getArgument(1).getUpdateObject();
+                    stored.putAll(update.get("$set", Document.class));
+                    stored.put("version", stored.getLong("version") + 1);
+                    return previous;
+                });
+        when(mongoTemplate.executeCommand(new Document("hello", 1)))
+                .thenReturn(new Document("isWritablePrimary", true).append("setName", "rs0"));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation
+                .<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(workflowTemplateRepository.save(any(WorkflowTemplate.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(workflowVersionActivationRepository.insert(any(WorkflowVersionActivation.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        workflowVersionStore = new WorkflowVersionStore(workflowVersionRepository, mongoTemplate, objectMapper,
+                20, 0.5, 64);
+        WorkflowTemplateCache templateCache = new WorkflowTemplateCache(mongoTemplate, DataSize.ofMegabytes(1),
+                Duration.ofMinutes(10), false, Duration.ofSeconds(1));
+
+        service = new WorkflowTemplateServiceImpl();
+        ReflectionTestUtils.setField(service, "workflowTemplateRepository", workflowTemplateRepository);
+        ReflectionTestUtils.setField(service, "workflowVersionRepository", workflowVersionRepository);
+        ReflectionTestUtils.setField(service, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(service, "workflowVersionActivationRepository",
+                workflowVersionActivationRepository);
+        ReflectionTestUtils.setField(service, "workflowVersionStore", workflowVersionStore);
+        ReflectionTestUtils.setField(service, "templateCache", templateCache);
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(service, "maxUpdateAttempts", 3);
+    }
+
+    @Test
+    void servesTheRolledBackVersionAsActive() {
+        WorkflowTemplate latest = null;
+        for (int versionNumber = 1; versionNumber <= 3; versionNumber++) {
+            latest = template(versionNumber);
+            workflowVersionStore.save(WorkflowVersion.builder()
+                    .templateId(ID)
+                    .versionNumber(versionNumber)
+                    .workflowData(template(versionNumber))
+                    .build());
+        }
+        latest.setLatestVersionNumber(3);
+        stored = new Document();
+        converter.write(latest, stored);
+        when(workflowVersionRepository.existsByTemplateIdAndVersionNumber(ID, 1)).thenReturn(true);
+
+        assertThat(service.getActiveWorkflowTemplate(ID)).map(WorkflowTemplate::getName)
+                .contains("Order fulfilment v3");
+
+        WorkflowVersionActivation activation = service.rollbackWorkflowTemplate(ID, 1, "user-1", "bad release");
+
+        assertThat(activation.getFromVersionNumber()).isEqualTo(3);
+        assertThat(activation.getToVersionNumber()).isEqualTo(1);
+        Optional<WorkflowTemplate> active = service.getActiveWorkflowTemplate(ID);
+        assertThat(active).map(WorkflowTemplate::getName).contains("Order fulfilment v1");
+        assertThat(active.get().getSteps()).extracting(WorkflowStep::getName).containsExactly("Step v1");
+    }
+
+    @Test
+    void servesTheLatestVersionWhenNeverRolledBack() {
+        WorkflowTemplate latest = template(2);
+        latest.setLatestVersionNumber(2);
+        stored = new Document();
+        converter.write(latest, stored);
+
+        assertThat(service.getActiveWorkflowTemplate(ID)).map(WorkflowTemplate::getName)
+                .contains("Order fulfilment v2");
+        assertThat(service.getActiveWorkflowTemplate("missing")).isEmpty();
+    }
+
+    @Test
+    void clonesARolledBackTemplateUnpinned() {
+        stored = new Document();
+        converter.write(pinnedTemplate(), stored);
+
+        WorkflowTemplate clone = service.cloneWorkflowTemplate(ID, "Copy", "user-2");
+
+        assertThat(clone.getActiveVersionNumber()).isNull();
+        assertThat(clone.getLatestVersionNumber()).isEqualTo(1);
+        assertThat(service.getActiveWorkflowTemplate(clone.getId())).containsSame(clone);
+    }
+
+    @Test
+    void importsAnExportedRolledBackTemplateUnpinned() throws Exception {
+        WorkflowTemplate imported = service.importWorkflowTemplate(
+                objectMapper.writeValueAsString(pinnedTemplate()), "user-2", "tenant-2");
+
+        assertThat(imported.getActiveVersionNumber()).isNull();
+        assertThat(imported.getLatestVersionNumber()).isEqualTo(1);
+        assertThat(service.getActiveWorkflowTemplate(imported.getId())).containsSame(imported);
+    }
+
+    @Test
+    void replacesTheContentAndClearsTheRollbackPin() {
+        updatedTemplates(2);
+        WorkflowTemplate request = request();
+        request.setCategory(null);
+
+        service.updateWorkflowTemplate(ID, request, "user-1", "edit");
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class),
+                eq(WorkflowTemplate.class));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        Document unset = update.getValue().getUpdateObject().get("$unset", Document.class);
+        assertThat(set).containsKeys("name", "steps", "triggers").doesNotContainKeys("version", "createdBy");
+        assertThat(unset).containsKeys("category", "icon", "activeVersionNumber")
+                .doesNotContainKeys("name", "createdBy", "executionCount");
+    }
+
+    @Test
+    void movesATrailingVersionCounterPastStoredHistoryAndRetries() {
+        updatedTemplates(2, 4);
+        when(mongoTemplate.insert(any(WorkflowVersion.class)))
+                .thenThrow(new DuplicateKeyException("template_version_idx"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(workflowVersionRepository.findTopByTemplateIdOrderByVersionNumberDesc(ID))
+                .thenReturn(Optional.of(WorkflowVersion.builder().templateId(ID).versionNumber(3).build()));
+
+        WorkflowVersion saved = service.updateWorkflowTemplate(ID, request(), "user-1", "edit");
+
+        assertThat(saved.getVersionNumber()).isEqualTo(4);
+        ArgumentCaptor<Update> reallocation = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), reallocation.capture(), eq(WorkflowTemplate.class));
+        assertThat(reallocation.getValue().getUpdateObject())
+                .isEqualTo(new Document("$max", new Document("latestVersionNumber", 3)));
+    }
+
+    @Test
+    void retriesADuplicateVersionNumberOnlyOnce() {
+        updatedTemplates(2, 4);
+        when(mongoTemplate.insert(any(WorkflowVersion.class)))
+                .thenThrow(new DuplicateKeyException("template_version_idx"));
+
+        assertThatThrownBy(() -> service.updateWorkflowTemplate(ID, request(), "user-1", "edit"))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void writesWithoutATransactionOnAStandaloneServer() {
+        updatedTemplates(2);
+        when(mongoTemplate.executeCommand(new Document("hello", 1)))
+                .thenReturn(new Document("isWritablePrimary", true));
+
+        WorkflowVersion saved = service.updateWorkflowTemplate(ID, request(), "user-1", "edit");
+
+        assertThat(saved.getVersionNumber()).isEqualTo(2);
+        verify(mongoTemplate).insert(any(WorkflowVersion.class));
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    /** The template findAndModify returns, with each given version number allocated in turn */
+    private void updatedTemplates(int... versionNumbers) {
+        WorkflowTemplate[] templates = new WorkflowTemplate[versionNumbers.length];
+        for (int i = 0; i < versionNumbers.length; i++) {
+            templates[i] = template(versionNumbers[i]);
+            templates[i].setLatestVersionNumber(versionNumbers[i]);
+        }
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(WorkflowTemplate.class))).thenReturn(templates[0],
+                        Arrays.copyOfRange(templates, 1, templates.length));
+    }
+
+    /** Version 4 of a template rolled back to version 2 */
+    private static WorkflowTemplate pinnedTemplate() {
+        WorkflowTemplate template = template(4);
+        template.setLatestVersionNumber(4);
+        template.setActiveVersionNumber(2);
+        return template;
+    }
+
+    private static WorkflowTemplate request() {
+        return WorkflowTemplate.builder()
+                .name("Order fulfilment")
+                .tenantId("tenant-1")
+                .category("orders")
+                .triggers(new ArrayList<>(List.of(WorkflowTrigger.builder()
+                        .name("Order placed")
+                        .type(TriggerType.WEBHOOK)
+                        .build())))
+                .steps(new ArrayList<>(List.of(WorkflowStep.builder()
+                        .name("Charge")
+                        .type(StepType.ACTION)
+                        .build())))
+                .build();
+    }
+
+    private static WorkflowTemplate template(int versionNumber) {
+        return WorkflowTemplate.builder()
+                .id(ID)
+                .templateId(ID)
+                .tenantId("tenant-1")
+                .name("Order fulfilment v" + versionNumber)
+                .steps(new ArrayList<>(List.of(WorkflowStep.builder()
+                        .id("step-1")
+                        .name("Step v" + versionNumber)
+                        .build())))
+                .version((long) versionNumber - 1)
+                .build();
+    }
+}